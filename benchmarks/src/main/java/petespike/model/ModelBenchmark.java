@@ -0,0 +1,148 @@
+package petespike.model;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the operations every search node goes through: generating the moves, making
+ * a move, making and undoing a move in place, copying the game and building the successors of
+ * a solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmark {
+    /**
+     * A copy of the puzzle and its first possible move. Every call undoes the move it makes,
+     * so the board is the same for every call and needs no setup between them, whose cost
+     * would dwarf a move of less than a microsecond.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+        PetesPike petesPike;
+        int move;
+
+        @Setup(Level.Trial)
+        public void copy(PuzzleState puzzle) {
+            petesPike = new PetesPike(puzzle.petesPike);
+            int[] moves = new int[petesPike.getMaxMoves()];
+            petesPike.generateMoves(moves);
+            move = moves[0];
+        }
+    }
+
+    /**
+     * A puzzle on a board with two moves that undo each other, so making them in turn with
+     * {@link PetesPike#makeMove(Move)} keeps the board cycling between two boards without any
+     * setup between calls. The board is the nearest one to the start, in moves, that has such
+     * a pair; neither board of the pair is won. {@code 5_5_2_0} and {@code 5_5_4_0} are left
+     * out: no board of theirs can be reached twice, so no moves of theirs undo each other.
+     */
+    @State(Scope.Thread)
+    public static class CycleState {
+        @Param({"4_8_5_no_solution", "5_5_4_1", "5_5_5_0", "5_7_4_0", "9_9_9_0"})
+        public String puzzle;
+
+        PetesPike petesPike;
+        Move[] moves;
+        int next;
+
+        @Setup(Level.Trial)
+        public void find() throws IOException {
+            PetesPike start = PuzzleState.load(puzzle);
+            Queue<PetesPike> boards = new ArrayDeque<>();
+            Set<Long> seen = new HashSet<>();
+            boards.add(start);
+            seen.add(start.getZobristHash());
+            while (!boards.isEmpty()) {
+                PetesPike board = boards.remove();
+                int[] moves = new int[board.getMaxMoves()];
+                int count = board.generateMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    PetesPike after = new PetesPike(board);
+                    after.applyMove(moves[i]);
+                    if (after.isGoal()) {
+                        continue;
+                    }
+                    Move back = findMoveTo(after, board.getZobristHash());
+                    if (back != null) {
+                        this.petesPike = board;
+                        this.moves = new Move[] {board.toMove(moves[i]), back};
+                        return;
+                    }
+                    if (seen.add(after.getZobristHash())) {
+                        boards.add(after);
+                    }
+                }
+            }
+            throw new IllegalStateException("The puzzle has no two moves that undo each other.");
+        }
+
+        /**
+         * Finds a move from a board that leads to the board with a given hash.
+         */
+        private static Move findMoveTo(PetesPike board, long hash) {
+            int[] moves = new int[board.getMaxMoves()];
+            int count = board.generateMoves(moves);
+            for (int i = 0; i < count; i++) {
+                long token = board.applyMove(moves[i]);
+                boolean found = board.getZobristHash() == hash;
+                board.undoMove(token);
+                if (found) {
+                    return board.toMove(moves[i]);
+                }
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<Move> getPossibleMoves(PuzzleState puzzle) {
+        return puzzle.petesPike.getPossibleMoves();
+    }
+
+    @Benchmark
+    public PetesPike makeMove(CycleState state) throws PetesPikeException {
+        state.petesPike.makeMove(state.moves[state.next]);
+        state.next ^= 1;
+        return state.petesPike;
+    }
+
+    @Benchmark
+    public long applyAndUndoMove(MoveState state) {
+        long token = state.petesPike.applyMove(state.move);
+        state.petesPike.undoMove(token);
+        return token;
+    }
+
+    @Benchmark
+    public PetesPike copy(PuzzleState puzzle) {
+        return new PetesPike(puzzle.petesPike);
+    }
+
+    @Benchmark
+    public Collection<PetesPikeSolver> getSuccessors(PuzzleState puzzle) {
+        return new PetesPikeSolver(puzzle.petesPike).getSuccessors();
+    }
+}
@@ -0,0 +1,39 @@
+package petespike.model;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One puzzle from {@code data/}, loaded once per trial. The directory is read from the
+ * {@code petespike.data} system property and defaults to {@code data} under the working
+ * directory. {@code petes_pike_trial.txt} is left out because it is empty.
+ */
+@State(Scope.Thread)
+public class PuzzleState {
+    @Param({"4_8_5_no_solution", "5_5_2_0", "5_5_4_0", "5_5_4_1", "5_5_5_0", "5_7_4_0", "9_9_9_0"})
+    public String puzzle;
+
+    public PetesPike petesPike;
+
+    @Setup
+    public void load() throws IOException {
+        petesPike = load(puzzle);
+    }
+
+    /**
+     * Loads a puzzle from the data directory.
+     *
+     * @param puzzle the name of the puzzle, without the {@code petes_pike_} prefix and the
+     *  extension
+     * @return the puzzle
+     * @throws IOException if the puzzle cannot be read
+     */
+    static PetesPike load(String puzzle) throws IOException {
+        String directory = System.getProperty("petespike.data", "data");
+        return new PetesPike(directory + "/petes_pike_" + puzzle + ".txt");
+    }
+}
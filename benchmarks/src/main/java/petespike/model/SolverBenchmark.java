@@ -0,0 +1,40 @@
+package petespike.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import backtracker.Backtracker;
+import backtracker.InPlaceBacktracker;
+import backtracker.TranspositionTable;
+
+/**
+ * Time to solve each puzzle end to end with the backtracker, the way
+ * {@link PetesPikeSolver#solve(PetesPike, boolean)} does. The larger boards take seconds per
+ * solve, so this runs fewer, longer iterations than the model benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SolverBenchmark {
+    @Benchmark
+    public PetesPikeSolver backtrackerSolve(PuzzleState puzzle) {
+        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false, new TranspositionTable());
+        return backtracker.solve(new PetesPikeSolver(puzzle.petesPike));
+    }
+
+    @Benchmark
+    public int[] relevanceSolveInPlace(PuzzleState puzzle) {
+        PetesPike petesPike = new PetesPike(puzzle.petesPike);
+        petesPike.setRelevancePruning(true);
+        return new InPlaceBacktracker(false, new TranspositionTable()).solve(petesPike);
+    }
+}
@@ -12,6 +12,11 @@ public class Backtracker<C extends Configuration<C>> {
      * Should debug output be enabled?
      */
     private boolean debug;
+
+    /*
+     * Configurations already explored, or null to explore every path
+     */
+    private TranspositionTable table;
     
     /**
      * Initialize a new backtracker
@@ -19,7 +24,20 @@ public class Backtracker<C extends Configuration<C>> {
      * @param debug Is debugging output enabled?
      */
     public Backtracker(boolean debug) {
+        this(debug, null);
+    }
+
+    /**
+     * Initialize a new backtracker that skips configurations it has
+     * already seen at an equal or shallower depth. Only configurations
+     * implementing backtracker.HashedConfiguration are looked up.
+     * 
+     * @param debug Is debugging output enabled?
+     * @param table The table recording explored configurations
+     */
+    public Backtracker(boolean debug, TranspositionTable table) {
         this.debug = debug;
+        this.table = table;
         if (this.debug) {
             System.out.println("backtracker.Backtracker debugging enabled...");
         }
@@ -32,7 +50,7 @@ public class Backtracker<C extends Configuration<C>> {
      *  successor, e.g.)
      * @param config The config to display
      */
-    private void debugPrint(String msg, C config) {
+    private void debugPrint(String msg, Object config) {
         if (this.debug) {
             System.out.println(msg + ":\n" + config);
         }
@@ -45,19 +63,62 @@ public class Backtracker<C extends Configuration<C>> {
      * @return A solution config, or null if no solution
      */
     public C solve(C config) {
+        return solve(config, SolveOptions.UNLIMITED).getSolution();
+    }
+
+    /**
+     * Try find a solution for a given configuration within the limits of
+     * some options. The result tells a solution apart from a proof that
+     * there is none and from a search that was stopped early.
+     * 
+     * @param config A valid configuration
+     * @param options The limits of the search
+     * @return The outcome of the search
+     */
+    public SolveResult<C> solve(C config, SolveOptions options) {
+        SearchBudget budget = new SearchBudget(options);
+        C solution = solve(config, 0, budget);
+        budget.finish();
+        return new SolveResult<>(budget.status(solution != null), solution, budget.statistics);
+    }
+
+    /**
+     * Try find a solution below a configuration at a given depth.
+     * 
+     * @param config A valid configuration
+     * @param depth The number of moves from the starting configuration
+     * @param budget The limits of this search
+     * @return A solution config, or null if no solution
+     */
+    private C solve(C config, int depth, SearchBudget budget) {
+        if (!budget.enter(depth)) {
+            return null;
+        }
+        if (table != null && config instanceof HashedConfiguration<?> hashed
+                && !table.visit(hashed.getHashKey(), depth)) {
+            budget.statistics.tableHits++;
+            debugPrint("\tAlready seen", config);
+            return null;
+        }
         debugPrint("Current config", config);
         if (config.isGoal()) {
             debugPrint("\tGoal config", config);
             return config;
         } else {
+            budget.statistics.expanded++;
             for (C child : config.getSuccessors()) {
                 if (child.isValid()) {
+                    budget.statistics.validSuccessors++;
                     debugPrint("\tValid successor", child);
-                    C sol = solve(child);
+                    C sol = solve(child, depth + 1, budget);
                     if(sol != null) {
                         return sol;
                     }
+                    if (budget.isStopped()) {
+                        return null;
+                    }
                 } else {
+                    budget.statistics.invalidSuccessors++;
                     debugPrint("\tInvalid successor", child);
                 }
             }
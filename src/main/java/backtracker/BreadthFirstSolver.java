@@ -0,0 +1,80 @@
+package backtracker;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * This class represents a breadth-first search over configurations.
+ * Unlike the backtracker.Backtracker it remembers every configuration it
+ * has already seen, so each distinct configuration is expanded at most
+ * once and the first goal found is one with the fewest steps.
+ *
+ * Configurations are deduplicated with {@code equals} and
+ * {@code hashCode}, so they must compare by puzzle state rather than by
+ * the path that produced them.
+ */
+public class BreadthFirstSolver<C extends Configuration<C>> {
+    /*
+     * Should debug output be enabled?
+     */
+    private boolean debug;
+
+    /**
+     * Initialize a new breadth-first solver
+     *
+     * @param debug Is debugging output enabled?
+     */
+    public BreadthFirstSolver(boolean debug) {
+        this.debug = debug;
+        if (this.debug) {
+            System.out.println("backtracker.BreadthFirstSolver debugging enabled...");
+        }
+    }
+
+    /**
+     * A utility routine for printing out various debug messages.
+     *
+     * @param msg The type of config being looked at (current, goal,
+     *  successor, e.g.)
+     * @param config The config to display
+     */
+    private void debugPrint(String msg, C config) {
+        if (this.debug) {
+            System.out.println(msg + ":\n" + config);
+        }
+    }
+
+    /**
+     * Find the goal configuration closest to the given configuration, if
+     * one exists.
+     *
+     * @param config A valid configuration
+     * @return A goal config reached in the fewest steps, or null if no
+     *  goal is reachable
+     */
+    public C solve(C config) {
+        Queue<C> frontier = new ArrayDeque<>();
+        Set<C> visited = new HashSet<>();
+        frontier.add(config);
+        visited.add(config);
+        while (!frontier.isEmpty()) {
+            C current = frontier.remove();
+            debugPrint("Current config", current);
+            if (current.isGoal()) {
+                debugPrint("\tGoal config", current);
+                return current;
+            }
+            for (C child : current.getSuccessors()) {
+                if (!child.isValid()) {
+                    debugPrint("\tInvalid successor", child);
+                } else if (visited.add(child)) {
+                    debugPrint("\tValid successor", child);
+                    frontier.add(child);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package backtracker;
+
+/**
+ * A flag another thread can raise to stop a running search. The
+ * search polls it every few hundred configurations, so a cancelled
+ * search returns shortly after cancel is called.
+ */
+public class CancellationToken {
+    /*
+     * Has the search been asked to stop?
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Ask every search using this token to stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Has cancel been called?
+     *
+     * @return true if the search should stop; false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
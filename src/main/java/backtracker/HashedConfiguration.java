@@ -0,0 +1,18 @@
+package backtracker;
+
+/**
+ * A configuration that can report a 64-bit key identifying its puzzle
+ * state. Two configurations with the same state must report the same
+ * key, whatever path led to them. Solvers use the key to recognize
+ * configurations they have already explored.
+ *
+ * @author GCCIS Faculty
+ */
+public interface HashedConfiguration<C extends HashedConfiguration<C>> extends Configuration<C> {
+    /**
+     * Get the key of the current configuration's state.
+     *
+     * @return A hash of the puzzle state
+     */
+    public long getHashKey();
+}
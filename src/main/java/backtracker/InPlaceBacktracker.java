@@ -0,0 +1,167 @@
+package backtracker;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the recursive backtracking algorithm on a single
+ * mutable configuration. Moves are applied and undone instead of
+ * creating successors, so the search allocates nothing per
+ * configuration, and the configuration is back in its starting state
+ * when a search returns.
+ *
+ * Configurations are visited in the order backtracker.Backtracker would
+ * visit the successors of the same moves.
+ */
+public class InPlaceBacktracker {
+    /*
+     * Should debug output be enabled?
+     */
+    private boolean debug;
+
+    /*
+     * Configurations already explored, or null to explore every path
+     */
+    private TranspositionTable table;
+
+    /**
+     * Initialize a new in-place backtracker
+     *
+     * @param debug Is debugging output enabled?
+     */
+    public InPlaceBacktracker(boolean debug) {
+        this(debug, null);
+    }
+
+    /**
+     * Initialize a new in-place backtracker that skips configurations it
+     * has already seen at an equal or shallower depth.
+     *
+     * @param debug Is debugging output enabled?
+     * @param table The table recording explored configurations
+     */
+    public InPlaceBacktracker(boolean debug, TranspositionTable table) {
+        this.debug = debug;
+        this.table = table;
+        if (this.debug) {
+            System.out.println("backtracker.InPlaceBacktracker debugging enabled...");
+        }
+    }
+
+    /**
+     * A utility routine for printing out various debug messages.
+     *
+     * @param msg The type of config being looked at (current, goal,
+     *  successor, e.g.)
+     * @param config The config to display
+     */
+    private void debugPrint(String msg, Object config) {
+        if (this.debug) {
+            System.out.println(msg + ":\n" + config);
+        }
+    }
+
+    /**
+     * Try find a solution, if one exists, by searching a mutable
+     * configuration in place.
+     *
+     * @param config A valid configuration
+     * @return The moves leading to a goal, or null if no solution
+     */
+    public int[] solve(MutableConfiguration config) {
+        return solve(config, SolveOptions.UNLIMITED).getSolution();
+    }
+
+    /**
+     * Try find a solution by searching a mutable configuration in place,
+     * within the limits of some options. The configuration is back in its
+     * starting state when this returns, however the search ended.
+     *
+     * @param config A valid configuration
+     * @param options The limits of the search
+     * @return The outcome of the search, whose solution is the moves
+     *  leading to a goal
+     */
+    public SolveResult<int[]> solve(MutableConfiguration config, SolveOptions options) {
+        InPlaceSearch search = new InPlaceSearch(config.getMaxMoves());
+        SearchBudget budget = new SearchBudget(options);
+        int length = solve(config, 0, search, budget);
+        int[] solution = length < 0 ? null : Arrays.copyOf(search.path, length);
+        budget.finish();
+        return new SolveResult<>(budget.status(solution != null), solution, budget.statistics);
+    }
+
+    /**
+     * Try find a solution below the current state of a mutable
+     * configuration.
+     *
+     * @param config The configuration, at the given depth
+     * @param depth The number of moves applied so far
+     * @param search The buffers of this search
+     * @param budget The limits of this search
+     * @return The number of moves of the solution, or -1 if no solution
+     */
+    private int solve(MutableConfiguration config, int depth, InPlaceSearch search, SearchBudget budget) {
+        if (!budget.enter(depth)) {
+            return -1;
+        }
+        if (table != null && !table.visit(config.getHashKey(), depth)) {
+            budget.statistics.tableHits++;
+            debugPrint("\tAlready seen", config);
+            return -1;
+        }
+        debugPrint("Current config", config);
+        if (config.isGoal()) {
+            debugPrint("\tGoal config", config);
+            return depth;
+        }
+        budget.statistics.expanded++;
+        int[] moves = search.movesAt(depth);
+        int count = config.getMoves(moves);
+        for (int i = 0; i < count && !budget.isStopped(); i++) {
+            long token = config.applyMove(moves[i]);
+            int length = -1;
+            if (config.isValid()) {
+                budget.statistics.validSuccessors++;
+                search.path[depth] = moves[i];
+                length = solve(config, depth + 1, search, budget);
+            } else {
+                budget.statistics.invalidSuccessors++;
+                debugPrint("\tInvalid successor", config);
+            }
+            config.undoMove(token);
+            if (length >= 0) {
+                return length;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The move buffers of one in-place search, one per depth, and the
+     * moves of the current path. Both grow as the search gets deeper.
+     */
+    private static class InPlaceSearch {
+        private final int maxMoves;
+        private int[][] moves = new int[16][];
+        private int[] path = new int[16];
+
+        private InPlaceSearch(int maxMoves) {
+            this.maxMoves = maxMoves;
+        }
+
+        /**
+         * The move buffer of a depth, reused by every configuration
+         * searched at that depth.
+         */
+        private int[] movesAt(int depth) {
+            if (depth >= moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+                path = Arrays.copyOf(path, moves.length);
+            }
+            if (moves[depth] == null) {
+                moves[depth] = new int[maxMoves];
+            }
+            return moves[depth];
+        }
+    }
+}
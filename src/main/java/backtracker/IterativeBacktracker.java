@@ -0,0 +1,139 @@
+package backtracker;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * This class represents the backtracking algorithm without recursion.
+ * It keeps its own stack of successor iterators on the heap, one per
+ * level, so the depth of a search is not limited by the size of the
+ * thread's call stack.
+ *
+ * Configurations are visited in the same order as the
+ * backtracker.Backtracker visits them, so both return the same solution.
+ */
+public class IterativeBacktracker<C extends Configuration<C>> {
+    /*
+     * Should debug output be enabled?
+     */
+    private boolean debug;
+
+    /*
+     * Configurations already explored, or null to explore every path
+     */
+    private TranspositionTable table;
+
+    /*
+     * The depth of the configuration being explored
+     */
+    private int depth;
+
+    /**
+     * Initialize a new iterative backtracker
+     *
+     * @param debug Is debugging output enabled?
+     */
+    public IterativeBacktracker(boolean debug) {
+        this(debug, null);
+    }
+
+    /**
+     * Initialize a new iterative backtracker that skips configurations it
+     * has already seen at an equal or shallower depth. Only configurations
+     * implementing backtracker.HashedConfiguration are looked up.
+     *
+     * @param debug Is debugging output enabled?
+     * @param table The table recording explored configurations
+     */
+    public IterativeBacktracker(boolean debug, TranspositionTable table) {
+        this.debug = debug;
+        this.table = table;
+        if (this.debug) {
+            System.out.println("backtracker.IterativeBacktracker debugging enabled...");
+        }
+    }
+
+    /**
+     * A utility routine for printing out various debug messages.
+     *
+     * @param msg The type of config being looked at (current, goal,
+     *  successor, e.g.)
+     * @param config The config to display
+     */
+    private void debugPrint(String msg, C config) {
+        if (this.debug) {
+            System.out.println(msg + ":\n" + config);
+        }
+    }
+
+    /**
+     * The depth of the configuration being explored, or of the solution
+     * once solve has found one.
+     *
+     * @return The number of moves from the starting configuration
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Try find a solution, if one exists, for a given configuration.
+     *
+     * @param config A valid configuration
+     * @return A solution config, or null if no solution
+     */
+    public C solve(C config) {
+        depth = 0;
+        if (!enter(config)) {
+            return null;
+        }
+        if (config.isGoal()) {
+            debugPrint("\tGoal config", config);
+            return config;
+        }
+        Deque<Iterator<C>> stack = new ArrayDeque<>();
+        stack.push(config.getSuccessors().iterator());
+        while (!stack.isEmpty()) {
+            Iterator<C> successors = stack.peek();
+            if (!successors.hasNext()) {
+                // backtracking happens here
+                stack.pop();
+                continue;
+            }
+            C child = successors.next();
+            if (!child.isValid()) {
+                debugPrint("\tInvalid successor", child);
+                continue;
+            }
+            debugPrint("\tValid successor", child);
+            depth = stack.size();
+            if (!enter(child)) {
+                continue;
+            }
+            if (child.isGoal()) {
+                debugPrint("\tGoal config", child);
+                return child;
+            }
+            stack.push(child.getSuccessors().iterator());
+        }
+        depth = 0;
+        return null;
+    }
+
+    /**
+     * Record a visit to a configuration at the current depth.
+     *
+     * @param config The configuration being entered
+     * @return true if it should be explored, false if it was already seen
+     */
+    private boolean enter(C config) {
+        if (table != null && config instanceof HashedConfiguration<?> hashed
+                && !table.visit(hashed.getHashKey(), depth)) {
+            debugPrint("\tAlready seen", config);
+            return false;
+        }
+        debugPrint("Current config", config);
+        return true;
+    }
+}
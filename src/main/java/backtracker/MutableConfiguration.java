@@ -0,0 +1,64 @@
+package backtracker;
+
+/**
+ * The representation of a puzzle that is searched in place. Instead of
+ * creating a successor for every move, the backtracker.InPlaceBacktracker
+ * applies a move to the one configuration, explores it and undoes the
+ * move again, so the search creates no garbage.
+ *
+ * Moves and undo tokens are plain numbers whose meaning is up to the
+ * puzzle.
+ */
+public interface MutableConfiguration {
+    /**
+     * The most moves getMoves can write at once.
+     *
+     * @return The size a move buffer must have
+     */
+    public int getMaxMoves();
+
+    /**
+     * Write the moves possible from the current configuration.
+     *
+     * @param buffer The buffer to fill, at least getMaxMoves() long
+     * @return The number of moves written
+     */
+    public int getMoves(int[] buffer);
+
+    /**
+     * Apply a move written by getMoves.
+     *
+     * @param move The move to apply
+     * @return A token that undoes the move
+     */
+    public long applyMove(int move);
+
+    /**
+     * Undo the last move applied.
+     *
+     * @param token The token applyMove returned for it
+     */
+    public void undoMove(long token);
+
+    /**
+     * Is the current configuration valid or not?
+     *
+     * @return true if valid; false otherwise
+     */
+    public boolean isValid();
+
+    /**
+     * Is the current configuration a goal?
+     *
+     * @return true if goal; false otherwise
+     */
+    public boolean isGoal();
+
+    /**
+     * A 64-bit hash of the current configuration, equal for equal
+     * configurations.
+     *
+     * @return The hash key
+     */
+    public long getHashKey();
+}
@@ -0,0 +1,179 @@
+package backtracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class represents the backtracking algorithm spread over several
+ * cores. The top levels of the successor tree are forked as tasks on a
+ * ForkJoinPool; below the split depth each task backtracks on its own.
+ * As soon as any task reaches a goal, every other task stops.
+ *
+ * Which solution is returned depends on thread timing, so it is not
+ * always the one the backtracker.Backtracker would find first.
+ */
+public class ParallelBacktracker<C extends Configuration<C>> {
+    /*
+     * The pool the tasks run on
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * The depth down to which successors become separate tasks
+     */
+    private final int splitDepth;
+
+    /*
+     * Should configurations already seen at an equal or shallower depth
+     * be skipped?
+     */
+    private final boolean detectCycles;
+
+    /**
+     * Initialize a new parallel backtracker on the common pool
+     *
+     * @param splitDepth The depth down to which successors are forked
+     * @param detectCycles Should configurations implementing
+     *  backtracker.HashedConfiguration be skipped once seen at an equal or
+     *  shallower depth?
+     */
+    public ParallelBacktracker(int splitDepth, boolean detectCycles) {
+        this(ForkJoinPool.commonPool(), splitDepth, detectCycles);
+    }
+
+    /**
+     * Initialize a new parallel backtracker
+     *
+     * @param pool The pool to run the tasks on
+     * @param splitDepth The depth down to which successors are forked
+     * @param detectCycles Should configurations implementing
+     *  backtracker.HashedConfiguration be skipped once seen at an equal or
+     *  shallower depth?
+     */
+    public ParallelBacktracker(ForkJoinPool pool, int splitDepth, boolean detectCycles) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.detectCycles = detectCycles;
+    }
+
+    /**
+     * Try find a solution, if one exists, for a given configuration.
+     *
+     * @param config A valid configuration
+     * @return A solution config, or null if no solution
+     */
+    public C solve(C config) {
+        Search search = new Search();
+        pool.invoke(new SolveTask(search, config, 0));
+        return search.solution.get();
+    }
+
+    /**
+     * The state shared by every task of one solve.
+     */
+    private class Search {
+        private final AtomicReference<C> solution = new AtomicReference<>();
+        private final ConcurrentHashMap<Long, Integer> seen = new ConcurrentHashMap<>();
+
+        /**
+         * Has any task found a goal yet?
+         */
+        private boolean isDone() {
+            return solution.get() != null;
+        }
+
+        /**
+         * Record a visit to a configuration.
+         *
+         * @return true if the configuration should be explored
+         */
+        private boolean visit(C config, int depth) {
+            if (!detectCycles || !(config instanceof HashedConfiguration<?> hashed)) {
+                return true;
+            }
+            boolean[] explore = new boolean[1];
+            seen.compute(hashed.getHashKey(), (key, known) -> {
+                if (known == null || depth < known) {
+                    explore[0] = true;
+                    return depth;
+                }
+                return known;
+            });
+            return explore[0];
+        }
+    }
+
+    /**
+     * Searches below one configuration, forking its successors while
+     * above the split depth.
+     */
+    private class SolveTask extends RecursiveTask<C> {
+        private final Search search;
+        private final C config;
+        private final int depth;
+
+        private SolveTask(Search search, C config, int depth) {
+            this.search = search;
+            this.config = config;
+            this.depth = depth;
+        }
+
+        @Override
+        protected C compute() {
+            if (depth >= splitDepth) {
+                return backtrack(config, depth);
+            }
+            if (search.isDone() || !search.visit(config, depth)) {
+                return null;
+            }
+            if (config.isGoal()) {
+                search.solution.compareAndSet(null, config);
+                return config;
+            }
+            List<SolveTask> tasks = new ArrayList<>();
+            for (C child : config.getSuccessors()) {
+                if (child.isValid()) {
+                    SolveTask task = new SolveTask(search, child, depth + 1);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            C found = null;
+            for (SolveTask task : tasks) {
+                if (found != null || search.isDone()) {
+                    // not yet started tasks are dropped, running ones see isDone()
+                    task.cancel(false);
+                } else {
+                    found = task.join();
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Plain backtracking below the split depth.
+         */
+        private C backtrack(C current, int currentDepth) {
+            if (search.isDone() || !search.visit(current, currentDepth)) {
+                return null;
+            }
+            if (current.isGoal()) {
+                search.solution.compareAndSet(null, current);
+                return current;
+            }
+            for (C child : current.getSuccessors()) {
+                if (child.isValid()) {
+                    C sol = backtrack(child, currentDepth + 1);
+                    if (sol != null) {
+                        return sol;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package backtracker;
+
+/**
+ * Keeps track of how much of its budget a search has used, and of its
+ * statistics. The clock, the cancellation token and the listener are
+ * only polled every CHECK_INTERVAL configurations, so the checks cost
+ * next to nothing per node.
+ */
+class SearchBudget {
+    private static final int CHECK_INTERVAL = 1024;
+
+    final SearchStatistics statistics = new SearchStatistics();
+    private final long maxNodes;
+    private final int maxDepth;
+    private final long start;
+    private final long deadline;
+    private final CancellationToken token;
+    private final SearchListener listener;
+    private final long reportInterval;
+    private long nextReport;
+    private boolean cutOff;
+    private SolveStatus stopped;
+
+    /**
+     * Start the clock of a search.
+     *
+     * @param options The limits of the search
+     */
+    SearchBudget(SolveOptions options) {
+        this.maxNodes = options.getMaxNodes();
+        this.maxDepth = options.getMaxDepth();
+        this.start = System.nanoTime();
+        this.deadline = options.getTimeLimit() == null ? 0
+            : start + options.getTimeLimit().toNanos();
+        this.token = options.getCancellationToken();
+        this.listener = options.getListener();
+        this.reportInterval = listener == null ? 0 : options.getReportInterval().toNanos();
+        this.nextReport = start + reportInterval;
+    }
+
+    /**
+     * Count a configuration about to be explored.
+     *
+     * @param depth The number of moves from the starting configuration
+     * @return true if the search may explore it
+     */
+    boolean enter(int depth) {
+        if (stopped != null) {
+            return false;
+        }
+        if (depth > maxDepth) {
+            cutOff = true;
+            return false;
+        }
+        if (statistics.nodes == maxNodes) {
+            stopped = SolveStatus.BUDGET_EXHAUSTED;
+            return false;
+        }
+        if (depth > statistics.maxDepth) {
+            statistics.maxDepth = depth;
+        }
+        if (++statistics.nodes % CHECK_INTERVAL == 0) {
+            poll();
+        }
+        return stopped == null;
+    }
+
+    /**
+     * Has the search been stopped by its time limit, its node budget or
+     * its cancellation token?
+     *
+     * @return true if the search must unwind without exploring more
+     */
+    boolean isStopped() {
+        return stopped != null;
+    }
+
+    /**
+     * Check the token and the clock, and report progress when due.
+     */
+    private void poll() {
+        long now = System.nanoTime();
+        statistics.elapsedNanos = now - start;
+        if (token != null && token.isCancelled()) {
+            stopped = SolveStatus.CANCELLED;
+        } else if (deadline != 0 && now - deadline > 0) {
+            stopped = SolveStatus.BUDGET_EXHAUSTED;
+        }
+        if (listener != null && now - nextReport >= 0) {
+            nextReport = now + reportInterval;
+            listener.progress(statistics);
+        }
+    }
+
+    /**
+     * Stop the clock and make the final report.
+     */
+    void finish() {
+        statistics.elapsedNanos = System.nanoTime() - start;
+        if (listener != null) {
+            listener.progress(statistics);
+        }
+    }
+
+    /**
+     * How the search ended.
+     *
+     * @param solved Whether the search found a goal
+     * @return The status of the search
+     */
+    SolveStatus status(boolean solved) {
+        if (solved) {
+            return SolveStatus.SOLVED;
+        } else if (stopped != null) {
+            return stopped;
+        } else if (cutOff) {
+            return SolveStatus.BUDGET_EXHAUSTED;
+        }
+        return SolveStatus.UNSOLVABLE;
+    }
+}
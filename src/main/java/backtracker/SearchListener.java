@@ -0,0 +1,16 @@
+package backtracker;
+
+/**
+ * Receives progress reports from a running search. Reports are made on
+ * the search thread, so a listener should return quickly and hand the
+ * numbers to another thread if it needs to do more.
+ */
+public interface SearchListener {
+    /**
+     * Called periodically while the search runs, and once when it ends.
+     *
+     * @param statistics The counters of the search so far; they keep
+     *  changing after this returns
+     */
+    public void progress(SearchStatistics statistics);
+}
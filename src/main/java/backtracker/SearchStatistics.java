@@ -0,0 +1,102 @@
+package backtracker;
+
+import java.time.Duration;
+
+/**
+ * Counters describing one search: how many configurations it visited
+ * and expanded, how many successors were valid, how often the
+ * transposition table cut a branch, how deep it went and how long it
+ * took. The counters are plain fields updated by the search thread, so
+ * keeping them costs a few increments per configuration.
+ */
+public class SearchStatistics {
+    long nodes;
+    long expanded;
+    long validSuccessors;
+    long invalidSuccessors;
+    long tableHits;
+    int maxDepth;
+    long elapsedNanos;
+
+    /**
+     * The number of configurations visited, including those the
+     * transposition table skipped.
+     *
+     * @return The node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * The number of configurations whose successors were generated.
+     *
+     * @return The expanded node count
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * The number of successors that were valid.
+     *
+     * @return The valid successor count
+     */
+    public long getValidSuccessors() {
+        return validSuccessors;
+    }
+
+    /**
+     * The number of successors that were invalid and pruned.
+     *
+     * @return The invalid successor count
+     */
+    public long getInvalidSuccessors() {
+        return invalidSuccessors;
+    }
+
+    /**
+     * The number of configurations skipped because the transposition
+     * table had seen them at an equal or shallower depth.
+     *
+     * @return The table hit count
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * The deepest configuration visited.
+     *
+     * @return The number of moves from the starting configuration
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * The average number of successors of an expanded configuration.
+     *
+     * @return The branching factor, or 0 if nothing was expanded
+     */
+    public double getBranchingFactor() {
+        return expanded == 0 ? 0 : (double) (validSuccessors + invalidSuccessors) / expanded;
+    }
+
+    /**
+     * How long the search has run, as of the last progress report or
+     * the end of the search.
+     *
+     * @return The elapsed wall-clock time
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d expanded, %d valid, %d invalid, %d table hits, "
+            + "max depth %d, branching %.2f, %d ms", nodes, expanded, validSuccessors,
+            invalidSuccessors, tableHits, maxDepth, getBranchingFactor(), getElapsed().toMillis());
+    }
+}
@@ -0,0 +1,147 @@
+package backtracker;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits on a single search: a time limit, a budget of configurations
+ * to explore, a maximum depth and a token to cancel it from another
+ * thread, as well as a listener receiving progress reports. Options
+ * are immutable; each with method returns a copy with one limit
+ * changed.
+ */
+public class SolveOptions {
+    /**
+     * Options without any limit.
+     */
+    public static final SolveOptions UNLIMITED =
+        new SolveOptions(null, Long.MAX_VALUE, Integer.MAX_VALUE, null, null, null);
+
+    private final Duration timeLimit;
+    private final long maxNodes;
+    private final int maxDepth;
+    private final CancellationToken token;
+    private final SearchListener listener;
+    private final Duration reportInterval;
+
+    private SolveOptions(Duration timeLimit, long maxNodes, int maxDepth, CancellationToken token,
+            SearchListener listener, Duration reportInterval) {
+        this.timeLimit = timeLimit;
+        this.maxNodes = maxNodes;
+        this.maxDepth = maxDepth;
+        this.token = token;
+        this.listener = listener;
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Limit the wall-clock time of the search, counted from the moment
+     * it starts.
+     *
+     * @param timeLimit The longest the search may run
+     * @return A copy of these options with the time limit
+     */
+    public SolveOptions withTimeLimit(Duration timeLimit) {
+        return new SolveOptions(timeLimit, maxNodes, maxDepth, token, listener, reportInterval);
+    }
+
+    /**
+     * Limit the number of configurations the search explores.
+     *
+     * @param maxNodes The most configurations to explore
+     * @return A copy of these options with the node budget
+     */
+    public SolveOptions withMaxNodes(long maxNodes) {
+        return new SolveOptions(timeLimit, maxNodes, maxDepth, token, listener, reportInterval);
+    }
+
+    /**
+     * Limit how many moves deep the search goes.
+     *
+     * @param maxDepth The deepest configuration to explore
+     * @return A copy of these options with the depth limit
+     */
+    public SolveOptions withMaxDepth(int maxDepth) {
+        return new SolveOptions(timeLimit, maxNodes, maxDepth, token, listener, reportInterval);
+    }
+
+    /**
+     * Let the search be cancelled through a token.
+     *
+     * @param token The token the search polls
+     * @return A copy of these options with the token
+     */
+    public SolveOptions withCancellationToken(CancellationToken token) {
+        return new SolveOptions(timeLimit, maxNodes, maxDepth, token, listener, reportInterval);
+    }
+
+    /**
+     * Report the statistics of the search to a listener at a regular
+     * interval, and once more when it ends.
+     *
+     * @param listener The listener to report to
+     * @param reportInterval The time between two reports
+     * @return A copy of these options with the listener
+     * @throws NullPointerException if the listener or the interval is null
+     */
+    public SolveOptions withListener(SearchListener listener, Duration reportInterval) {
+        Objects.requireNonNull(listener, "listener");
+        Objects.requireNonNull(reportInterval, "reportInterval");
+        return new SolveOptions(timeLimit, maxNodes, maxDepth, token, listener, reportInterval);
+    }
+
+    /**
+     * The time limit.
+     *
+     * @return The longest the search may run, or null for no limit
+     */
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * The node budget.
+     *
+     * @return The most configurations to explore
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * The depth limit.
+     *
+     * @return The deepest configuration to explore
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * The cancellation token.
+     *
+     * @return The token the search polls, or null if it cannot be
+     *  cancelled
+     */
+    public CancellationToken getCancellationToken() {
+        return token;
+    }
+
+    /**
+     * The progress listener.
+     *
+     * @return The listener, or null if no progress is reported
+     */
+    public SearchListener getListener() {
+        return listener;
+    }
+
+    /**
+     * The time between two progress reports.
+     *
+     * @return The report interval, or null if no progress is reported
+     */
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+}
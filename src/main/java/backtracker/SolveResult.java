@@ -0,0 +1,66 @@
+package backtracker;
+
+/**
+ * The outcome of a search run with backtracker.SolveOptions.
+ *
+ * @param <S> The type of the solution
+ */
+public class SolveResult<S> {
+    private final SolveStatus status;
+    private final S solution;
+    private final SearchStatistics statistics;
+
+    /**
+     * Create a result.
+     *
+     * @param status How the search ended
+     * @param solution The solution, or null unless the status is SOLVED
+     * @param statistics The counters of the search
+     */
+    public SolveResult(SolveStatus status, S solution, SearchStatistics statistics) {
+        this.status = status;
+        this.solution = solution;
+        this.statistics = statistics;
+    }
+
+    /**
+     * How the search ended.
+     *
+     * @return The status of the search
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * The solution found.
+     *
+     * @return The solution, or null unless the status is SOLVED
+     */
+    public S getSolution() {
+        return solution;
+    }
+
+    /**
+     * The number of configurations the search explored.
+     *
+     * @return The node count
+     */
+    public long getNodes() {
+        return statistics.getNodes();
+    }
+
+    /**
+     * The counters of the search.
+     *
+     * @return The statistics of the search
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return status + ": " + statistics;
+    }
+}
@@ -0,0 +1,28 @@
+package backtracker;
+
+/**
+ * How a search with backtracker.SolveOptions ended.
+ */
+public enum SolveStatus {
+    /**
+     * A goal was found.
+     */
+    SOLVED,
+
+    /**
+     * Every configuration was explored without finding a goal, so the
+     * puzzle has no solution.
+     */
+    UNSOLVABLE,
+
+    /**
+     * The time limit, the node budget or the depth limit stopped the
+     * search before it found a goal or proved there is none.
+     */
+    BUDGET_EXHAUSTED,
+
+    /**
+     * The cancellation token was raised.
+     */
+    CANCELLED
+}
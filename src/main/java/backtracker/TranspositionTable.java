@@ -0,0 +1,113 @@
+package backtracker;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the shallowest depth at which each configuration key has
+ * been explored. The backtracker.Backtracker consults it to skip
+ * configurations it has already seen at an equal or shallower depth,
+ * which also cuts every cycle in the search.
+ *
+ * Keys and depths are stored in primitive arrays with open addressing,
+ * so a lookup does not allocate.
+ */
+public class TranspositionTable {
+    /*
+     * Stands in for key 0, which marks an empty slot.
+     */
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] depths;
+    private int size;
+
+    /**
+     * Initialize an empty table
+     */
+    public TranspositionTable() {
+        this(1 << 12);
+    }
+
+    /**
+     * Initialize an empty table sized for roughly the given number of
+     * configurations.
+     *
+     * @param expected The number of configurations expected
+     */
+    public TranspositionTable(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.depths = new int[capacity];
+    }
+
+    /**
+     * Record a visit to a configuration.
+     *
+     * @param key The configuration's key
+     * @param depth The depth the configuration was reached at
+     * @return true if the configuration should be explored; false if it
+     *  was already seen at an equal or shallower depth
+     */
+    public boolean visit(long key, int depth) {
+        if (key == 0) {
+            key = ZERO_KEY;
+        }
+        int mask = keys.length - 1;
+        int slot = spread(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                if (depths[slot] <= depth) {
+                    return false;
+                }
+                depths[slot] = depth;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        depths[slot] = depth;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * The number of distinct configurations recorded.
+     *
+     * @return The number of keys in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forget every recorded configuration.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldDepths = depths;
+        keys = new long[oldKeys.length * 2];
+        depths = new int[oldDepths.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = spread(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                depths[slot] = oldDepths[i];
+            }
+        }
+    }
+
+    private static int spread(long key) {
+        return (int)(key ^ (key >>> 32));
+    }
+}
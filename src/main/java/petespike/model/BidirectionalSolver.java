@@ -0,0 +1,246 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import backtracker.BreadthFirstSolver;
+
+/**
+ * Finds a shortest solution by searching forward from the starting board and backward from
+ * every goal board at the same time, stopping once the two searches meet. Each side only has
+ * to cover about half of the solution's depth.
+ *
+ * Which goat stands where never matters for the goal, so both sides work on states whose goat
+ * cells are sorted; boards that only differ by goat labels are stored once. The goal boards are
+ * every placement of the goats with Pete on the mountain top and a goat next to it to stop him.
+ * When there are more of them than the solver is allowed to enumerate, it falls back to a
+ * forward breadth-first search.
+ */
+public class BidirectionalSolver {
+    /**
+     * The default limit on goal boards, about a hundred megabytes of seeds.
+     */
+    public static final long DEFAULT_MAX_GOAL_STATES = 1_000_000;
+
+    private final PackedBoard board;
+    private final long maxGoalStates;
+    private final int pieces;
+
+    /**
+     * Constructs a solver for a packed board with the default limit on goal boards.
+     *
+     * @param board the packed layout of the puzzle
+     */
+    public BidirectionalSolver(PackedBoard board) {
+        this(board, DEFAULT_MAX_GOAL_STATES);
+    }
+
+    /**
+     * Constructs a solver for a packed board.
+     *
+     * @param board the packed layout of the puzzle
+     * @param maxGoalStates the largest number of goal boards to seed the backward search with
+     */
+    public BidirectionalSolver(PackedBoard board, long maxGoalStates) {
+        this.board = board;
+        this.maxGoalStates = maxGoalStates;
+        this.pieces = board.getPieceCount();
+    }
+
+    /**
+     * Finds a shortest solution from a state.
+     *
+     * @param start the starting state
+     * @return the moves of a shortest solution, or null if there is none
+     */
+    public List<Move> solve(PackedState start) {
+        if (board.isGoal(start)) {
+            return new ArrayList<>();
+        }
+        if (countGoalStates() > maxGoalStates) {
+            PackedSolver solution = new BreadthFirstSolver<PackedSolver>(false).solve(new PackedSolver(board, start));
+            return solution == null ? null : solution.getMoves();
+        }
+
+        Map<PackedState, Node> forward = new HashMap<>();
+        Map<PackedState, Node> backward = new HashMap<>();
+        List<PackedState> forwardFrontier = new ArrayList<>();
+        List<PackedState> backwardFrontier = enumerateGoalStates();
+        PackedState origin = sortGoats(start);
+        forward.put(origin, new Node(null, 0));
+        forwardFrontier.add(origin);
+        for (PackedState goal : backwardFrontier) {
+            backward.put(goal, new Node(null, 0));
+        }
+
+        int[] moves = new int[Math.max(board.getMaxMoves(), board.getMaxReverseMoves())];
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            boolean expandForward = forwardFrontier.size() <= backwardFrontier.size();
+            Map<PackedState, Node> seen = expandForward ? forward : backward;
+            Map<PackedState, Node> other = expandForward ? backward : forward;
+            List<PackedState> next = new ArrayList<>();
+            PackedState meeting = null;
+            int best = Integer.MAX_VALUE;
+            for (PackedState state : expandForward ? forwardFrontier : backwardFrontier) {
+                int depth = seen.get(state).depth + 1;
+                int count = expandForward ? board.generateMoves(state, moves) : board.generateReverseMoves(state, moves);
+                for (int i = 0; i < count; i++) {
+                    PackedState child = sortGoats(board.apply(state, moves[i]));
+                    if (seen.containsKey(child) || (!expandForward && board.isGoal(child))) {
+                        continue;
+                    }
+                    seen.put(child, new Node(state, depth));
+                    Node match = other.get(child);
+                    if (match != null && depth + match.depth < best) {
+                        best = depth + match.depth;
+                        meeting = child;
+                    } else if (expandForward && board.isGoal(child)) {
+                        continue;
+                    }
+                    next.add(child);
+                }
+            }
+            if (meeting != null) {
+                return toMoves(meeting, forward, backward);
+            }
+            if (expandForward) {
+                forwardFrontier = next;
+            } else {
+                backwardFrontier = next;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Joins the forward path to the meeting state with the backward path from it.
+     */
+    private List<Move> toMoves(PackedState meeting, Map<PackedState, Node> forward, Map<PackedState, Node> backward) {
+        List<PackedState> states = new ArrayList<>();
+        for (PackedState state = meeting; state != null; state = forward.get(state).parent) {
+            states.add(state);
+        }
+        Collections.reverse(states);
+        for (PackedState state = backward.get(meeting).parent; state != null; state = backward.get(state).parent) {
+            states.add(state);
+        }
+        List<Move> moves = new ArrayList<>();
+        for (int i = 1; i < states.size(); i++) {
+            moves.add(moveBetween(states.get(i - 1), states.get(i)));
+        }
+        return moves;
+    }
+
+    /**
+     * Works out the move between two goat-sorted states that differ by one slide. Goat labels
+     * may have been reordered, so the moved goat is the cell only the first state has.
+     */
+    private Move moveBetween(PackedState from, PackedState to) {
+        int[] before = board.unpack(from, new int[pieces]);
+        int[] after = board.unpack(to, new int[pieces]);
+        int source;
+        int target;
+        if (before[0] != after[0]) {
+            source = before[0];
+            target = after[0];
+        } else {
+            source = onlyIn(before, after);
+            target = onlyIn(after, before);
+        }
+        int cols = board.getCols();
+        Direction direction;
+        if (source / cols == target / cols) {
+            direction = target > source ? Direction.RIGHT : Direction.LEFT;
+        } else {
+            direction = target > source ? Direction.DOWN : Direction.UP;
+        }
+        return new Move(board.toPosition(source), direction);
+    }
+
+    private static int onlyIn(int[] cells, int[] others) {
+        for (int piece = 1; piece < cells.length; piece++) {
+            if (Arrays.binarySearch(others, 1, others.length, cells[piece]) < 0) {
+                return cells[piece];
+            }
+        }
+        throw new IllegalStateException("states do not differ by a goat move");
+    }
+
+    private PackedState sortGoats(PackedState state) {
+        int[] cells = board.unpack(state, new int[pieces]);
+        Arrays.sort(cells, 1, pieces);
+        return board.pack(cells);
+    }
+
+    /**
+     * Counts the goat placements around Pete on the mountain top, ignoring goat labels.
+     */
+    private double countGoalStates() {
+        double count = 1;
+        int free = board.getRows() * board.getCols() - 1;
+        for (int goat = 1; goat < pieces; goat++) {
+            count = count * (free - goat + 1) / goat;
+        }
+        return count;
+    }
+
+    /**
+     * Lists every goal state, with goats sorted, that Pete could have slid into: a goat must
+     * stand just past the mountain top on a line Pete can approach along.
+     */
+    private List<PackedState> enumerateGoalStates() {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int top = board.getMountainTop();
+        boolean[] stopper = new boolean[rows * cols];
+        int topRow = top / cols;
+        int topCol = top % cols;
+        int[][] steps = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] step : steps) {
+            if (board.isOnBoard(topRow + step[0], topCol + step[1]) && board.isOnBoard(topRow - step[0], topCol - step[1])) {
+                stopper[(topRow + step[0]) * cols + topCol + step[1]] = true;
+            }
+        }
+
+        List<PackedState> goals = new ArrayList<>();
+        int[] cells = new int[pieces];
+        cells[0] = top;
+        placeGoats(cells, 1, 0, stopper, goals);
+        return goals;
+    }
+
+    private void placeGoats(int[] cells, int goat, int from, boolean[] stopper, List<PackedState> goals) {
+        if (goat == pieces) {
+            for (int piece = 1; piece < pieces; piece++) {
+                if (stopper[cells[piece]]) {
+                    goals.add(board.pack(cells));
+                    return;
+                }
+            }
+            return;
+        }
+        for (int cell = from; cell < stopper.length; cell++) {
+            if (cell != cells[0]) {
+                cells[goat] = cell;
+                placeGoats(cells, goat + 1, cell + 1, stopper, goals);
+            }
+        }
+    }
+
+    /**
+     * The state a search came from and the number of moves from its side's origin.
+     */
+    private static class Node {
+        private final PackedState parent;
+        private final int depth;
+
+        private Node(PackedState parent, int depth) {
+            this.parent = parent;
+            this.depth = depth;
+        }
+    }
+}
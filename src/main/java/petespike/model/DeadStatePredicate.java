@@ -0,0 +1,48 @@
+package petespike.model;
+
+/**
+ * Recognizes boards from which Pete can provably never reach the mountain top, so a search can
+ * drop them, and everything below them, as soon as they are generated. A predicate must never
+ * call a board that has a solution dead, or the search would miss it.
+ */
+@FunctionalInterface
+public interface DeadStatePredicate {
+    /**
+     * Never calls a board dead.
+     */
+    DeadStatePredicate NONE = petesPike -> false;
+
+    /**
+     * A board on which no piece can move is dead unless Pete is already on the mountain top.
+     */
+    DeadStatePredicate NO_MOVES = petesPike -> !petesPike.hasMoves();
+
+    /**
+     * A board is dead when the mountain top is not among the cells Pete can ever stop on; see
+     * {@link PetesPike#isProvablyUnsolvable()}.
+     */
+    DeadStatePredicate UNREACHABLE_TOP = PetesPike::isProvablyUnsolvable;
+
+    /**
+     * The rules {@link PetesPikeSolver} applies by default, cheapest first.
+     */
+    DeadStatePredicate DEFAULT = NO_MOVES.or(UNREACHABLE_TOP);
+
+    /**
+     * Checks whether a board that is not won can never be won.
+     *
+     * @param petesPike the board, which must be left unchanged
+     * @return true if the board is proved to have no solution
+     */
+    boolean isDead(PetesPike petesPike);
+
+    /**
+     * Combines this predicate with another one; a board is dead if either calls it dead.
+     *
+     * @param other the other predicate
+     * @return the combined predicate
+     */
+    default DeadStatePredicate or(DeadStatePredicate other) {
+        return petesPike -> isDead(petesPike) || other.isDead(petesPike);
+    }
+}
@@ -0,0 +1,328 @@
+package petespike.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The distance to the goal of every board reachable from a starting board, for puzzles small
+ * enough to enumerate. Once built, the shortest distance, solvability and best next move of any
+ * of those boards are lookups, with no further search.
+ *
+ * <p>Every board has a slot in a byte array, found by a perfect hash: Pete's cell times the
+ * number of ways to place the goats, plus the rank of the set of goat cells in the
+ * combinatorial number system. Goats are interchangeable, so boards that only differ by goat
+ * labels share a slot. The table is filled in two passes: a breadth-first search from the
+ * starting board marks every reachable board, then a retrograde breadth-first search from the
+ * reachable goal boards, following {@link PackedBoard#generateReverseMoves reverse slides},
+ * gives each board that can still be won its distance.</p>
+ *
+ * <p>A built table is only read, so it can be queried from several threads.</p>
+ */
+public class DistanceTable {
+    /**
+     * The distance of a board that cannot be reached from the starting board.
+     */
+    public static final int UNREACHABLE = -2;
+
+    /**
+     * The distance of a reachable board from which Pete can never reach the mountain top.
+     */
+    public static final int UNSOLVABLE = -1;
+
+    /**
+     * The longest distance a slot can hold.
+     */
+    public static final int MAX_DISTANCE = 253;
+
+    /**
+     * The default limit on slots, a table of 128 megabytes.
+     */
+    public static final long DEFAULT_MAX_STATES = 1L << 27;
+
+    /*
+     * Slot values: 0 for unreached, 1 for reached without a known distance, and the distance
+     * plus 2 otherwise
+     */
+    private static final byte NOT_REACHED = 0;
+    private static final byte REACHED = 1;
+
+    private final PackedBoard board;
+    private final int cells;
+    private final int goats;
+    private final long[][] binomial;
+    private final long goatSets;
+    private final byte[] table;
+    private int reachable;
+    private int[] distanceCounts;
+
+    /**
+     * Builds the table of a board with the default limit on slots.
+     *
+     * @param petesPike the starting board
+     * @throws IllegalArgumentException if the puzzle has more boards than the limit
+     */
+    public DistanceTable(PetesPike petesPike) {
+        this(petesPike, DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Builds the table of a board.
+     *
+     * @param petesPike the starting board
+     * @param maxStates the most slots the table may have, one byte each
+     * @throws IllegalArgumentException if the puzzle has more boards than the limit
+     */
+    public DistanceTable(PetesPike petesPike, long maxStates) {
+        this.board = new PackedBoard(petesPike);
+        this.cells = board.getRows() * board.getCols();
+        this.goats = board.getPieceCount() - 1;
+        this.binomial = binomials(cells, goats);
+        this.goatSets = binomial[cells][goats];
+        long size = countStates(petesPike);
+        if (size > Math.min(maxStates, Integer.MAX_VALUE - 8)) {
+            throw new IllegalArgumentException("The puzzle has " + size + " boards, more than the limit of "
+                + maxStates + ".");
+        }
+        this.table = new byte[(int)size];
+        build(board.pack(petesPike));
+    }
+
+    /**
+     * Counts the slots a table of a board needs: every cell for Pete times every set of cells
+     * for the goats.
+     *
+     * @param petesPike the board
+     * @return the number of slots, or {@link Long#MAX_VALUE} if it does not fit in a long
+     */
+    public static long countStates(PetesPike petesPike) {
+        int cells = petesPike.getRows() * petesPike.getCol();
+        int goats = petesPike.getElement().size() - 1;
+        long goatSets = binomials(cells, goats)[cells][goats];
+        return goatSets > Long.MAX_VALUE / cells ? Long.MAX_VALUE : goatSets * cells;
+    }
+
+    /**
+     * Returns the number of moves left on a shortest solution from a board.
+     *
+     * @param petesPike a board of this puzzle
+     * @return the distance, 0 on the goal, or {@link #UNSOLVABLE} or {@link #UNREACHABLE}
+     */
+    public int getDistance(PetesPike petesPike) {
+        return distance(index(board.unpack(board.pack(petesPike), new int[goats + 1])));
+    }
+
+    /**
+     * Checks whether Pete can still reach the mountain top from a board.
+     *
+     * @param petesPike a board of this puzzle
+     * @return true if the board has a solution, false if it has none or is not reachable
+     */
+    public boolean isSolvable(PetesPike petesPike) {
+        return getDistance(petesPike) >= 0;
+    }
+
+    /**
+     * Returns the first move of a shortest solution from a board.
+     *
+     * @param petesPike a board of this puzzle
+     * @return the move, or null if the board is won, has no solution or is not reachable
+     */
+    public Move getBestMove(PetesPike petesPike) {
+        PackedState state = board.pack(petesPike);
+        int[] pieceCells = new int[goats + 1];
+        int distance = distance(index(board.unpack(state, pieceCells)));
+        if (distance <= 0) {
+            return null;
+        }
+        int[] moves = new int[board.getMaxMoves()];
+        int count = board.generateMoves(state, moves);
+        for (int i = 0; i < count; i++) {
+            PackedState next = board.apply(state, moves[i]);
+            if (distance(index(board.unpack(next, pieceCells))) == distance - 1) {
+                return board.toMove(state, moves[i]);
+            }
+        }
+        throw new IllegalStateException("No move leads one step closer to the goal.");
+    }
+
+    /**
+     * Returns the number of boards reachable from the starting board, counting boards that
+     * only differ by goat labels once.
+     *
+     * @return the number of reachable boards
+     */
+    public int getReachableStates() {
+        return reachable;
+    }
+
+    /**
+     * Returns how many reachable boards are at each distance from the goal, a measure of how
+     * hard the puzzle is: the length of the array is one more than the longest distance.
+     *
+     * @return the number of boards at each distance
+     */
+    public int[] getDistanceCounts() {
+        return distanceCounts.clone();
+    }
+
+    /**
+     * Returns the number of reachable boards from which the puzzle can still be won.
+     *
+     * @return the number of solvable boards
+     */
+    public int getSolvableStates() {
+        return Arrays.stream(distanceCounts).sum();
+    }
+
+    /**
+     * Marks every reachable board, then gives every board that can be won its distance.
+     */
+    private void build(PackedState start) {
+        int[] pieceCells = new int[goats + 1];
+        int[] queue = new int[1024];
+        int size = 0;
+        int startIndex = index(board.unpack(start, pieceCells));
+        table[startIndex] = REACHED;
+        queue[size++] = startIndex;
+        int[] moves = new int[Math.max(board.getMaxMoves(), board.getMaxReverseMoves())];
+        for (int head = 0; head < size; head++) {
+            PackedState state = board.pack(unindex(queue[head], pieceCells));
+            if (board.isGoal(state)) {
+                // the game ends on the mountain top
+                continue;
+            }
+            int count = board.generateMoves(state, moves);
+            for (int i = 0; i < count; i++) {
+                int next = index(board.unpack(board.apply(state, moves[i]), pieceCells));
+                if (table[next] == NOT_REACHED) {
+                    table[next] = REACHED;
+                    if (size == queue.length) {
+                        queue = Arrays.copyOf(queue, 2 * size);
+                    }
+                    queue[size++] = next;
+                }
+            }
+        }
+        this.reachable = size;
+
+        // the goal boards go first, in the order they were reached, then every board is
+        // appended as its distance becomes known
+        int solved = 0;
+        int[] retrograde = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (board.isGoal(board.pack(unindex(queue[i], pieceCells)))) {
+                table[queue[i]] = toSlot(0);
+                retrograde[solved++] = queue[i];
+            }
+        }
+        int longest = 0;
+        for (int head = 0; head < solved; head++) {
+            int distance = distance(retrograde[head]);
+            PackedState state = board.pack(unindex(retrograde[head], pieceCells));
+            int count = board.generateReverseMoves(state, moves);
+            for (int i = 0; i < count; i++) {
+                int previous = index(board.unpack(board.apply(state, moves[i]), pieceCells));
+                if (table[previous] == REACHED) {
+                    if (distance + 1 > MAX_DISTANCE) {
+                        throw new IllegalStateException("A solution is longer than " + MAX_DISTANCE + " moves.");
+                    }
+                    table[previous] = toSlot(distance + 1);
+                    retrograde[solved++] = previous;
+                    longest = distance + 1;
+                }
+            }
+        }
+        this.distanceCounts = new int[solved == 0 ? 0 : longest + 1];
+        for (int i = 0; i < solved; i++) {
+            distanceCounts[distance(retrograde[i])]++;
+        }
+    }
+
+    private int distance(int index) {
+        return fromSlot(table[index]);
+    }
+
+    /**
+     * Returns the slot value of a distance. Slots are unsigned, so distances above 125 are
+     * stored as negative bytes.
+     */
+    static byte toSlot(int distance) {
+        return (byte)(distance + 2);
+    }
+
+    /**
+     * Returns the distance a slot value holds, or {@link #UNREACHABLE} or {@link #UNSOLVABLE}.
+     */
+    static int fromSlot(byte slot) {
+        int value = slot & 0xFF;
+        return value == NOT_REACHED ? UNREACHABLE : value == REACHED ? UNSOLVABLE : value - 2;
+    }
+
+    /**
+     * Returns the slot of a board: Pete's cell, then the rank of the sorted goat cells.
+     */
+    private int index(int[] pieces) {
+        Arrays.sort(pieces, 1, pieces.length);
+        long rank = 0;
+        for (int goat = 1; goat < pieces.length; goat++) {
+            rank += binomial[pieces[goat]][goat];
+        }
+        return (int)(pieces[0] * goatSets + rank);
+    }
+
+    /**
+     * Writes the cells of the board in a slot, goats sorted.
+     */
+    private int[] unindex(int index, int[] pieces) {
+        pieces[0] = (int)(index / goatSets);
+        long rank = index % goatSets;
+        int cell = cells;
+        for (int goat = goats; goat >= 1; goat--) {
+            do {
+                cell--;
+            } while (binomial[cell][goat] > rank);
+            pieces[goat] = cell;
+            rank -= binomial[cell][goat];
+        }
+        return pieces;
+    }
+
+    /**
+     * Builds Pascal's triangle up to n choose k, saturating at {@link Long#MAX_VALUE}.
+     */
+    private static long[][] binomials(int n, int k) {
+        long[][] binomial = new long[n + 1][k + 1];
+        for (int i = 0; i <= n; i++) {
+            binomial[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, k); j++) {
+                long sum = binomial[i - 1][j - 1] + binomial[i - 1][j];
+                binomial[i][j] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+        return binomial;
+    }
+
+    /**
+     * Prints how hard a puzzle is: its shortest solution and how many boards lie at each
+     * distance from the goal.
+     *
+     * @param args the puzzle file
+     * @throws IOException if the puzzle cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: DistanceTable puzzle_file");
+            return;
+        }
+        PetesPike petesPike = new PetesPike(args[0]);
+        DistanceTable table = new DistanceTable(petesPike);
+        int distance = table.getDistance(petesPike);
+        System.out.println("Shortest solution: " + (distance < 0 ? "none" : distance + " moves"));
+        System.out.println("Reachable boards: " + table.getReachableStates());
+        System.out.println("Solvable boards: " + table.getSolvableStates());
+        int[] counts = table.getDistanceCounts();
+        for (int i = 0; i < counts.length; i++) {
+            System.out.println("  " + i + " moves: " + counts[i]);
+        }
+    }
+}
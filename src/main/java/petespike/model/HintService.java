@@ -0,0 +1,242 @@
+package petespike.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggests the next move of a shortest solution for a board the player is moving on.
+ *
+ * <p>A shortest solution is computed once, and every board along it is remembered by its
+ * Zobrist hash together with the move to make from it, so while the player follows the
+ * solution, or goes back to a board on it, a hint is a single lookup. When the player leaves
+ * the solution, {@link #update()} starts looking for a new one on a background thread; the
+ * boards of earlier solutions stay remembered, so each search only adds to what is known.
+ * Solutions also go through the {@link SolutionCache}.</p>
+ *
+ * <p>Puzzles with at most {@value #TABLE_STATES} boards get a {@link DistanceTable} built in
+ * the background as well, after the search of the first board; once it is ready, every board
+ * reachable from the first one is a lookup, on a known solution or not.</p>
+ *
+ * <p>Each service has its own worker thread, so the searches of one puzzle never hold up the
+ * hints of another. A service that is no longer needed should be {@linkplain #close()
+ * closed}.</p>
+ */
+public class HintService {
+    /**
+     * The largest puzzle, in slots of its distance table, that gets a table.
+     */
+    public static final long TABLE_STATES = 1L << 24;
+
+    /*
+     * Stands for "no move" in the table: the board is solved or has no solution
+     */
+    private static final Move NONE = new Move(new Position(-1, -1), Direction.UP);
+
+    private final PetesPike petesPike;
+    private final Map<Long, Move> hints = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<Move>> waiting = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "petespike-hints");
+            thread.setDaemon(true);
+            return thread;
+        });
+    private Future<?> pending;
+    private long pendingKey;
+    private boolean pendingNeeded;
+    private volatile long wantedKey;
+    private volatile boolean closed;
+    private volatile DistanceTable table;
+
+    /**
+     * Creates a hint service for a board and starts looking for its solution, then building
+     * its distance table if the puzzle is small enough.
+     *
+     * @param petesPike the board the player moves on
+     */
+    public HintService(PetesPike petesPike) {
+        this.petesPike = petesPike;
+        update();
+        if (DistanceTable.countStates(petesPike) <= TABLE_STATES) {
+            PetesPike copy = new PetesPike(petesPike);
+            worker.execute(() -> {
+                if (!closed) {
+                    table = new DistanceTable(copy, TABLE_STATES);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the board this service gives hints for.
+     *
+     * @return the board
+     */
+    public PetesPike getPetesPike() {
+        return petesPike;
+    }
+
+    /**
+     * Tells the service the board has changed. If the new board is not on a known solution,
+     * a shortest solution is looked for in the background. Boards the player has already left
+     * again by the time the worker gets to them are skipped.
+     */
+    public synchronized void update() {
+        if (closed) {
+            return;
+        }
+        long key = petesPike.getZobristHash();
+        wantedKey = key;
+        DistanceTable distances = table;
+        if (distances != null && distances.getDistance(petesPike) != DistanceTable.UNREACHABLE) {
+            return;
+        }
+        if (!hints.containsKey(key)) {
+            submit(key, false);
+        }
+    }
+
+    /**
+     * Suggests the next move of a shortest solution from the current board. On a known
+     * solution this is a lookup; otherwise it waits for the search of the current board.
+     *
+     * @return the move to make next, or null if the game is won or cannot be won from here
+     * @throws java.util.concurrent.CancellationException if the service is closed before
+     *  the search ends
+     */
+    public Move getHint() {
+        try {
+            return requestHint().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Suggests the next move of a shortest solution from the current board without waiting.
+     * On a known solution the returned future is already complete; otherwise it completes,
+     * on the worker thread, once the current board has been searched.
+     *
+     * @return the move to make next, or null if the game is won or cannot be won from here;
+     *  cancelled if the service is closed before the search ends
+     */
+    public synchronized CompletableFuture<Move> requestHint() {
+        CompletableFuture<Move> hint = new CompletableFuture<>();
+        if (closed) {
+            hint.cancel(false);
+            return hint;
+        }
+        DistanceTable distances = table;
+        if (distances != null && distances.getDistance(petesPike) != DistanceTable.UNREACHABLE) {
+            hint.complete(distances.getBestMove(petesPike));
+            return hint;
+        }
+        long key = petesPike.getZobristHash();
+        Move next = hints.get(key);
+        if (next == null) {
+            // a search queued by update() may be skipped, so queue one that is not
+            wantedKey = key;
+            submit(key, true);
+            waiting.add(hint);
+            // the worker runs one task at a time, so this runs once that search has ended
+            worker.execute(() -> answer(hint, key));
+        } else {
+            hint.complete(next == NONE ? null : next);
+        }
+        return hint;
+    }
+
+    /**
+     * Stops the service: searches and the table build that have not started yet are
+     * skipped, and hints that are still being looked for are cancelled. A search already
+     * running finishes on the worker thread, but its result is not used.
+     */
+    public synchronized void close() {
+        closed = true;
+        worker.shutdown();
+        for (CompletableFuture<Move> hint : waiting) {
+            hint.cancel(false);
+        }
+        waiting.clear();
+    }
+
+    /**
+     * Completes a hint with what the search of its board found.
+     */
+    private void answer(CompletableFuture<Move> hint, long key) {
+        waiting.remove(hint);
+        Move next = hints.get(key);
+        if (closed) {
+            hint.cancel(false);
+        } else if (next == null) {
+            hint.completeExceptionally(new IllegalStateException("The search of the board did not finish."));
+        } else {
+            hint.complete(next == NONE ? null : next);
+        }
+    }
+
+    /**
+     * Starts the search of a board unless it is already running or queued.
+     */
+    private void submit(long key, boolean needed) {
+        if (pending != null && pendingKey == key && !pending.isDone() && (pendingNeeded || !needed)) {
+            return;
+        }
+        PetesPike copy = new PetesPike(petesPike);
+        pendingKey = key;
+        pendingNeeded = needed;
+        pending = worker.submit(() -> {
+            if (!closed && (needed || wantedKey == key)) {
+                learn(copy);
+            }
+        });
+    }
+
+    /**
+     * Finds a shortest solution from a board and remembers the move to make from every board
+     * along it.
+     */
+    private void learn(PetesPike copy) {
+        long start = copy.getZobristHash();
+        if (hints.containsKey(start)) {
+            return;
+        }
+        SolutionCache cache = SolutionCache.getDefault();
+        List<Move> moves = cache == null ? null : cache.get(copy, true);
+        if (moves == null) {
+            PetesPikeSolver solution = new PetesPikeSolver(copy).solveShortest(copy, false);
+            if (solution == null) {
+                hints.put(start, NONE);
+                return;
+            }
+            moves = solution.getMoves();
+            if (cache != null) {
+                cache.put(copy, moves, true);
+            }
+        }
+        int[] buffer = new int[copy.getMaxMoves()];
+        for (Move move : moves) {
+            hints.put(copy.getZobristHash(), move);
+            int count = copy.generateMoves(buffer);
+            for (int i = 0; i < count; i++) {
+                if (copy.toMove(buffer[i]).equals(move)) {
+                    copy.applyMove(buffer[i]);
+                    break;
+                }
+            }
+        }
+        hints.put(copy.getZobristHash(), NONE);
+    }
+}
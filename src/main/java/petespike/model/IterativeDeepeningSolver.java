@@ -0,0 +1,182 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves Pete's Pike with iterative-deepening A* (IDA*). Each iteration is a depth-first
+ * search that stops at boards whose moves so far plus a lower bound on the moves still
+ * needed exceed the current bound; the bound then grows to the smallest value that was
+ * cut off. The first solution found is therefore a shortest one, and memory only grows
+ * with the length of the current path, never with the number of boards explored.
+ */
+public class IterativeDeepeningSolver {
+    private static final int FOUND = -1;
+
+    private final PackedBoard board;
+    private final int maxDepth;
+    private PackedState[] path;
+    private int[] pathMoves;
+    private int[][] moveBuffers;
+    private int solutionLength;
+
+    /**
+     * Constructs a solver for a packed board.
+     *
+     * @param board the packed layout of the puzzle
+     * @param maxDepth the longest solution to look for, since IDA* cannot prove a puzzle unsolvable
+     */
+    public IterativeDeepeningSolver(PackedBoard board, int maxDepth) {
+        this.board = board;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Finds a shortest solution from a state.
+     *
+     * @param start the starting state
+     * @return the moves of a shortest solution, or null if there is none within the maximum depth
+     */
+    public List<Move> solve(PackedState start) {
+        this.path = new PackedState[maxDepth + 1];
+        this.pathMoves = new int[maxDepth];
+        this.moveBuffers = new int[maxDepth][board.getMaxMoves()];
+        path[0] = start;
+        int bound = estimate(board, start);
+        while (bound <= maxDepth) {
+            int next = search(0, bound);
+            if (next == FOUND) {
+                return toMoves();
+            }
+            if (next == Integer.MAX_VALUE) {
+                return null;
+            }
+            bound = next;
+        }
+        return null;
+    }
+
+    /**
+     * Searches below the state at the given depth of the current path.
+     *
+     * @param depth the number of moves made so far
+     * @param bound the largest total estimate explored in this iteration
+     * @return FOUND if a solution was reached, otherwise the smallest estimate above the bound
+     */
+    private int search(int depth, int bound) {
+        PackedState state = path[depth];
+        if (board.isGoal(state)) {
+            solutionLength = depth;
+            return FOUND;
+        }
+        if (depth == maxDepth) {
+            return Integer.MAX_VALUE;
+        }
+        int[] moves = moveBuffers[depth];
+        int count = board.generateMoves(state, moves);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            PackedState child = board.apply(state, moves[i]);
+            if (onPath(child, depth)) {
+                continue;
+            }
+            int estimate = depth + 1 + estimate(board, child);
+            if (estimate > bound) {
+                min = Math.min(min, estimate);
+                continue;
+            }
+            path[depth + 1] = child;
+            pathMoves[depth] = moves[i];
+            int result = search(depth + 1, bound);
+            if (result == FOUND) {
+                return FOUND;
+            }
+            min = Math.min(min, result);
+        }
+        return min;
+    }
+
+    /**
+     * Checks whether a state already appears on the current path, so cycles are never walked.
+     *
+     * @param state the state to look for
+     * @param depth the depth of the last state on the path
+     * @return true if the state is on the path, false otherwise
+     */
+    private boolean onPath(PackedState state, int depth) {
+        for (int i = depth; i >= 0; i--) {
+            if (path[i].equals(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Move> toMoves() {
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < solutionLength; i++) {
+            moves.add(board.toMove(path[i], pathMoves[i]));
+        }
+        return moves;
+    }
+
+    /**
+     * A lower bound on the moves needed to get Pete to the mountain top. Pete slides along one
+     * row or column per move, so he needs at least two moves unless he shares a row or column
+     * with the mountain top. Even then he needs one move only if nothing stands between him and
+     * the mountain top and a piece waits just past it to stop him; otherwise something else
+     * has to move first.
+     *
+     * @param board the packed layout of the puzzle
+     * @param state the state to estimate
+     * @return 0 if solved, otherwise 1 or 2
+     */
+    public static int estimate(PackedBoard board, PackedState state) {
+        int cols = board.getCols();
+        int pete = board.getCell(state, 0);
+        int top = board.getMountainTop();
+        if (pete == top) {
+            return 0;
+        }
+        int peteRow = pete / cols;
+        int peteCol = pete % cols;
+        int topRow = top / cols;
+        int topCol = top % cols;
+        if (peteRow != topRow && peteCol != topCol) {
+            return 2;
+        }
+        int rowStep = Integer.signum(topRow - peteRow);
+        int colStep = Integer.signum(topCol - peteCol);
+        int stopRow = topRow + rowStep;
+        int stopCol = topCol + colStep;
+        if (stopRow < 0 || stopRow >= board.getRows() || stopCol < 0 || stopCol >= cols) {
+            return 2;
+        }
+        int stopper = stopRow * cols + stopCol;
+        int step = rowStep * cols + colStep;
+        boolean stopped = false;
+        for (int piece = 1; piece < board.getPieceCount(); piece++) {
+            int cell = board.getCell(state, piece);
+            if (cell == stopper) {
+                stopped = true;
+            } else if (between(cell, pete, top, step)) {
+                return 2;
+            }
+        }
+        return stopped ? 1 : 2;
+    }
+
+    /**
+     * Checks whether a cell lies on the line from one cell up to and including another.
+     */
+    private static boolean between(int cell, int from, int to, int step) {
+        for (int current = from + step; ; current += step) {
+            if (current == cell) {
+                return true;
+            }
+            if (current == to) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranks the moves of a board so a depth-first search tries the most promising ones first.
+ *
+ * <p>Moves fall into three tiers: Pete landing on the mountain top, then moves after which
+ * Pete can slide onto it with his next move, either because he lines up with it or because a
+ * goat becomes the piece that stops him there, then the rest. Within a tier, moves are ranked
+ * by a history learned during the search: a move loses a point each time it leads to a board
+ * the solver finds dead, so slides that keep ending in dead boards are tried last. Ties keep
+ * the order the moves were given in.</p>
+ *
+ * <p>One ordering is meant to be shared by all the boards of one search, and is not
+ * thread-safe.</p>
+ */
+public class MoveOrdering {
+    private static final int TIER = 1 << 20;
+    private static final int MAX_HISTORY = TIER - 1;
+    private static final int PIECES = 10;
+
+    private final int cols;
+    private final int[] history;
+
+    /**
+     * Creates an ordering with no history for boards of a given size.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     */
+    public MoveOrdering(int rows, int cols) {
+        this.cols = cols;
+        this.history = new int[rows * cols * PIECES * 4];
+    }
+
+    /**
+     * Sorts the moves of a board, best first.
+     *
+     * @param petesPike the board the moves are made on
+     * @param moves the moves, as returned by {@link PetesPike#getPossibleMoves()}
+     * @return the moves in the order to try them
+     */
+    public List<Move> order(PetesPike petesPike, List<Move> moves) {
+        int[] scores = new int[moves.size()];
+        List<Integer> indexes = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = score(petesPike, moves.get(i));
+            indexes.add(i);
+        }
+        indexes.sort((a, b) -> Integer.compare(scores[b], scores[a]));
+        List<Move> ordered = new ArrayList<>(moves.size());
+        for (int i : indexes) {
+            ordered.add(moves.get(i));
+        }
+        return ordered;
+    }
+
+    /**
+     * Records that a move led to a board that can never be won.
+     *
+     * @param move the key of the move, from {@link #keyOf(char, Direction, Position)}
+     */
+    public void dead(int move) {
+        history[move] = Math.max(-MAX_HISTORY, history[move] - 1);
+    }
+
+    /**
+     * Identifies a move by the piece, its direction and the cell it stops on, so the same
+     * slide is recognized on different boards.
+     *
+     * @param symbol the piece that moved
+     * @param direction the direction it slid in
+     * @param target the position it stopped on
+     * @return the key of the move
+     */
+    public int keyOf(char symbol, Direction direction, Position target) {
+        int piece = symbol == 'P' ? 0 : symbol - '0' + 1;
+        return ((target.getRow() * cols + target.getCol()) * PIECES + piece) * 4 + direction.ordinal();
+    }
+
+    /**
+     * Scores a move by its tier and its history.
+     */
+    private int score(PetesPike petesPike, Move move) {
+        Position from = move.getPosition();
+        Position target = petesPike.getTarget(move);
+        if (target == null) {
+            return -2 * TIER;
+        }
+        char symbol = petesPike.getSymbolAt(from);
+        Position top = petesPike.getMountainTop();
+        Position pete = symbol == petesPike.PETE_SYMBOL ? target : petesPike.getElement().get(petesPike.PETE_SYMBOL);
+        int tier;
+        if (pete.equals(top)) {
+            tier = 2;
+        } else if (canSlideOntoTop(petesPike, from, target, pete, top)) {
+            tier = 1;
+        } else {
+            tier = 0;
+        }
+        return tier * TIER + history[keyOf(symbol, move.getDirection(), target)];
+    }
+
+    /**
+     * Checks whether, once a piece has slid from one cell to another, Pete can reach the
+     * mountain top with his next slide: he is on its row or column, the cells between are
+     * free and a piece stands just past it.
+     */
+    private static boolean canSlideOntoTop(PetesPike petesPike, Position from, Position to, Position pete,
+            Position top) {
+        int rowStep = Integer.signum(top.getRow() - pete.getRow());
+        int colStep = Integer.signum(top.getCol() - pete.getCol());
+        if ((rowStep != 0) == (colStep != 0)) {
+            return false;
+        }
+        int row = pete.getRow() + rowStep;
+        int col = pete.getCol() + colStep;
+        while (row != top.getRow() || col != top.getCol()) {
+            if (isOccupiedAfter(petesPike, from, to, row, col)) {
+                return false;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+        row += rowStep;
+        col += colStep;
+        return row >= 0 && col >= 0 && row < petesPike.getRows() && col < petesPike.getCol()
+            && isOccupiedAfter(petesPike, from, to, row, col);
+    }
+
+    /**
+     * Checks whether a cell holds a piece once a piece has slid from one cell to another.
+     */
+    private static boolean isOccupiedAfter(PetesPike petesPike, Position from, Position to, int row, int col) {
+        if (row == to.getRow() && col == to.getCol()) {
+            return true;
+        }
+        if (row == from.getRow() && col == from.getCol()) {
+            return false;
+        }
+        Position position = new Position(row, col);
+        return petesPike.getSymbolAt(position) != petesPike.EMPTY_SYMBOL && !position.equals(petesPike.getMountainTop());
+    }
+}
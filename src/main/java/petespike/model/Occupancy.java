@@ -0,0 +1,135 @@
+package petespike.model;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which cells of a board hold a piece, as one bitmask per row and one per column.
+ * Finding where a sliding piece stops is then a single bit scan on its row or column
+ * instead of a comparison with every other piece. Boards may have up to 64 rows and columns.
+ */
+public class Occupancy {
+    /**
+     * The largest number of rows or columns a board may have.
+     */
+    public static final int MAX_SIZE = 64;
+
+    private final int rows;
+    private final int cols;
+    private final long[] rowBits;
+    private final long[] colBits;
+
+    /**
+     * Creates an empty occupancy for a board.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     */
+    public Occupancy(int rows, int cols) {
+        if (rows > MAX_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException("Boards may have at most " + MAX_SIZE + " rows and columns.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowBits = new long[rows];
+        this.colBits = new long[cols];
+    }
+
+    /**
+     * Creates a copy of another occupancy.
+     *
+     * @param other the occupancy to copy
+     */
+    public Occupancy(Occupancy other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.rowBits = other.rowBits.clone();
+        this.colBits = other.colBits.clone();
+    }
+
+    /**
+     * Marks a cell as holding a piece.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    public void set(int row, int col) {
+        rowBits[row] |= 1L << col;
+        colBits[col] |= 1L << row;
+    }
+
+    /**
+     * Marks a cell as empty.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    public void clear(int row, int col) {
+        rowBits[row] &= ~(1L << col);
+        colBits[col] &= ~(1L << row);
+    }
+
+    /**
+     * Marks every cell as empty.
+     */
+    public void clearAll() {
+        Arrays.fill(rowBits, 0);
+        Arrays.fill(colBits, 0);
+    }
+
+    /**
+     * Checks whether a cell holds a piece.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if the cell is occupied, false otherwise
+     */
+    public boolean isSet(int row, int col) {
+        return (rowBits[row] & (1L << col)) != 0;
+    }
+
+    /**
+     * Works out where a piece slides to. It stops next to the first piece in its way; with no
+     * piece in the way, or one right next to it, it cannot move in that direction.
+     *
+     * @param row the row of the sliding piece
+     * @param col the column of the sliding piece
+     * @param direction the direction it slides in
+     * @return the cell index ({@code row * cols + col}) it stops on, or -1 if it cannot move
+     */
+    public int slide(int row, int col, Direction direction) {
+        switch (direction) {
+            case UP: {
+                long above = colBits[col] & ((1L << row) - 1);
+                if (above == 0) {
+                    return -1;
+                }
+                int stop = 64 - Long.numberOfLeadingZeros(above);
+                return stop == row ? -1 : stop * cols + col;
+            }
+            case DOWN: {
+                long below = colBits[col] & (-2L << row);
+                if (below == 0) {
+                    return -1;
+                }
+                int stop = Long.numberOfTrailingZeros(below) - 1;
+                return stop == row ? -1 : stop * cols + col;
+            }
+            case LEFT: {
+                long left = rowBits[row] & ((1L << col) - 1);
+                if (left == 0) {
+                    return -1;
+                }
+                int stop = 64 - Long.numberOfLeadingZeros(left);
+                return stop == col ? -1 : row * cols + stop;
+            }
+            default: {
+                long right = rowBits[row] & (-2L << col);
+                if (right == 0) {
+                    return -1;
+                }
+                int stop = Long.numberOfTrailingZeros(right) - 1;
+                return stop == col ? -1 : row * cols + stop;
+            }
+        }
+    }
+}
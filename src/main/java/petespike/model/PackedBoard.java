@@ -0,0 +1,462 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Describes the fixed parts of a Pete's Pike puzzle (its size, the mountain top and the
+ * pieces on it) and works on {@link PackedState}s of that puzzle. Search code keeps one
+ * PackedBoard per solve and only a few bytes per visited board, instead of a full
+ * {@link PetesPike} copy for every node.
+ *
+ * Pieces are numbered with Pete first and then the goats in symbol order. Cells are
+ * numbered row by row, so cell {@code row * cols + col}. A move is encoded in an
+ * {@code int} holding the piece, the direction and the cell the piece slides to.
+ */
+public class PackedBoard {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final char PETE_SYMBOL = 'P';
+
+    private final int rows;
+    private final int cols;
+    private final int mountainTop;
+    private final char[] symbols;
+    private final int bitsPerCell;
+    private final long cellMask;
+    private final int words;
+    private final int[] wordOf;
+    private final int[] shiftOf;
+    private final int[][] symmetries;
+
+    /**
+     * Creates the packed layout for the puzzle held by a PetesPike game.
+     *
+     * @param petesPike the game whose board size, mountain top and pieces are used
+     */
+    public PackedBoard(PetesPike petesPike) {
+        this.rows = petesPike.getRows();
+        this.cols = petesPike.getCol();
+        this.mountainTop = toCell(petesPike.getMountainTop());
+
+        List<Character> goats = new ArrayList<>(petesPike.getElement().keySet());
+        goats.remove(Character.valueOf(PETE_SYMBOL));
+        goats.sort(null);
+        this.symbols = new char[goats.size() + 1];
+        this.symbols[0] = PETE_SYMBOL;
+        for (int i = 0; i < goats.size(); i++) {
+            this.symbols[i + 1] = goats.get(i);
+        }
+
+        int cells = rows * cols;
+        this.bitsPerCell = Math.max(1, 32 - Integer.numberOfLeadingZeros(cells - 1));
+        this.cellMask = (1L << bitsPerCell) - 1;
+        int cellsPerWord = 64 / bitsPerCell;
+        this.words = (symbols.length + cellsPerWord - 1) / cellsPerWord;
+        this.wordOf = new int[symbols.length];
+        this.shiftOf = new int[symbols.length];
+        for (int piece = 0; piece < symbols.length; piece++) {
+            wordOf[piece] = piece / cellsPerWord;
+            shiftOf[piece] = (piece % cellsPerWord) * bitsPerCell;
+        }
+
+        // only the symmetries that keep the board's shape and its mountain top relate two
+        // states of this puzzle
+        List<int[]> maps = new ArrayList<>();
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            if (rows == cols || !Symmetry.swapsDimensions(transform)) {
+                int[] map = Symmetry.cellMap(transform, rows, cols);
+                if (map[mountainTop] == mountainTop) {
+                    maps.add(map);
+                }
+            }
+        }
+        this.symmetries = maps.toArray(new int[0][]);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMountainTop() {
+        return mountainTop;
+    }
+
+    public int getPieceCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Returns the board symbol of a piece, 'P' for piece 0 and the goat digits after it.
+     *
+     * @param piece the piece index
+     * @return the symbol of the piece
+     */
+    public char getSymbol(int piece) {
+        return symbols[piece];
+    }
+
+    /**
+     * Returns the largest number of moves a single state can have, which is the size
+     * a move buffer passed to {@link #generateMoves(PackedState, int[])} needs.
+     *
+     * @return four moves for each piece
+     */
+    public int getMaxMoves() {
+        return symbols.length * 4;
+    }
+
+    /**
+     * Converts a position to its cell index.
+     *
+     * @param position the position on the board
+     * @return the cell index of the position
+     */
+    public int toCell(Position position) {
+        return position.getRow() * cols + position.getCol();
+    }
+
+    /**
+     * Converts a cell index back to a position.
+     *
+     * @param cell the cell index
+     * @return the position of the cell
+     */
+    public Position toPosition(int cell) {
+        return new Position(cell / cols, cell % cols);
+    }
+
+    /**
+     * Packs the current positions of the pieces of a game.
+     *
+     * @param petesPike a game played on this board
+     * @return the packed state of the game
+     */
+    public PackedState pack(PetesPike petesPike) {
+        int[] cells = new int[symbols.length];
+        for (int piece = 0; piece < symbols.length; piece++) {
+            cells[piece] = toCell(petesPike.getElement().get(symbols[piece]));
+        }
+        return pack(cells);
+    }
+
+    /**
+     * Packs an array of piece cells.
+     *
+     * @param cells the cell of each piece, indexed by piece
+     * @return the packed state
+     */
+    public PackedState pack(int[] cells) {
+        long[] packed = new long[words];
+        for (int piece = 0; piece < cells.length; piece++) {
+            packed[wordOf[piece]] |= (long)cells[piece] << shiftOf[piece];
+        }
+        long[] tail = null;
+        if (words > 1) {
+            tail = new long[words - 1];
+            System.arraycopy(packed, 1, tail, 0, tail.length);
+        }
+        return new PackedState(packed[0], tail);
+    }
+
+    /**
+     * Unpacks every piece cell of a state into an array.
+     *
+     * @param state the packed state
+     * @param cells the array receiving the cell of each piece
+     * @return the given array
+     */
+    public int[] unpack(PackedState state, int[] cells) {
+        for (int piece = 0; piece < symbols.length; piece++) {
+            cells[piece] = getCell(state, piece);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the cell a piece stands on.
+     *
+     * @param state the packed state
+     * @param piece the piece index
+     * @return the cell index of the piece
+     */
+    public int getCell(PackedState state, int piece) {
+        return (int)((state.getWord(wordOf[piece]) >>> shiftOf[piece]) & cellMask);
+    }
+
+    /**
+     * Returns a copy of a state with one piece moved to another cell.
+     *
+     * @param state the packed state
+     * @param piece the piece index
+     * @param cell the new cell of the piece
+     * @return the new state
+     */
+    public PackedState withCell(PackedState state, int piece, int cell) {
+        int word = wordOf[piece];
+        int shift = shiftOf[piece];
+        long packed = (state.getWord(word) & ~(cellMask << shift)) | ((long)cell << shift);
+        return state.withWord(word, packed);
+    }
+
+    /**
+     * Returns the canonical form of a state: the smallest of its images under the symmetries
+     * of this board that keep the mountain top in place, with the goats sorted by cell. States
+     * with the same canonical form have the same solutions up to symmetry, so searches can key
+     * their visited sets on it. The goat labels of a canonical state are meaningless, so it is
+     * only a key and never a position to move from.
+     *
+     * @param state the packed state
+     * @return the canonical packed state
+     */
+    public PackedState canonical(PackedState state) {
+        int pieces = symbols.length;
+        int[] cells = unpack(state, new int[pieces]);
+        int[] best = new int[pieces];
+        int[] candidate = new int[pieces];
+        for (int i = 0; i < symmetries.length; i++) {
+            int[] map = symmetries[i];
+            for (int piece = 0; piece < pieces; piece++) {
+                candidate[piece] = map[cells[piece]];
+            }
+            Arrays.sort(candidate, 1, pieces);
+            if (i == 0 || Arrays.compare(candidate, best) < 0) {
+                int[] swap = best;
+                best = candidate;
+                candidate = swap;
+            }
+        }
+        return pack(best);
+    }
+
+    /**
+     * Checks whether Pete stands on the mountain top.
+     *
+     * @param state the packed state
+     * @return true if the state is solved, false otherwise
+     */
+    public boolean isGoal(PackedState state) {
+        return getCell(state, 0) == mountainTop;
+    }
+
+    /**
+     * Writes every legal move of a state into a buffer. A piece may slide in a direction
+     * when another piece further along that line stops it at least one cell away.
+     *
+     * @param state the packed state
+     * @param buffer the buffer receiving encoded moves, at least {@link #getMaxMoves()} long
+     * @return the number of moves written
+     */
+    public int generateMoves(PackedState state, int[] buffer) {
+        int count = 0;
+        for (int piece = 0; piece < symbols.length; piece++) {
+            int cell = getCell(state, piece);
+            int row = cell / cols;
+            int col = cell % cols;
+            int up = -1;
+            int down = rows;
+            int left = -1;
+            int right = cols;
+            for (int other = 0; other < symbols.length; other++) {
+                if (other == piece) {
+                    continue;
+                }
+                int otherCell = getCell(state, other);
+                int otherRow = otherCell / cols;
+                int otherCol = otherCell % cols;
+                if (otherCol == col) {
+                    if (otherRow < row && otherRow > up) {
+                        up = otherRow;
+                    } else if (otherRow > row && otherRow < down) {
+                        down = otherRow;
+                    }
+                } else if (otherRow == row) {
+                    if (otherCol < col && otherCol > left) {
+                        left = otherCol;
+                    } else if (otherCol > col && otherCol < right) {
+                        right = otherCol;
+                    }
+                }
+            }
+            if (up >= 0 && up + 1 < row) {
+                buffer[count++] = encode(piece, Direction.UP, (up + 1) * cols + col);
+            }
+            if (down < rows && down - 1 > row) {
+                buffer[count++] = encode(piece, Direction.DOWN, (down - 1) * cols + col);
+            }
+            if (left >= 0 && left + 1 < col) {
+                buffer[count++] = encode(piece, Direction.LEFT, row * cols + left + 1);
+            }
+            if (right < cols && right - 1 > col) {
+                buffer[count++] = encode(piece, Direction.RIGHT, row * cols + right - 1);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest number of reverse moves a single state can have, which is the size
+     * a buffer passed to {@link #generateReverseMoves(PackedState, int[])} needs.
+     *
+     * @return the bound on reverse moves
+     */
+    public int getMaxReverseMoves() {
+        return symbols.length * 4 * Math.max(rows, cols);
+    }
+
+    /**
+     * Writes every reverse slide of a state into a buffer, so that applying a reverse move gives
+     * a state from which a regular move leads back here. A piece that could have slid into its
+     * cell in some direction must have a stopper just past it in that direction; it may have
+     * started on any free cell behind it along the line.
+     *
+     * @param state the packed state
+     * @param buffer the buffer receiving encoded moves, at least {@link #getMaxReverseMoves()} long
+     * @return the number of reverse moves written
+     */
+    public int generateReverseMoves(PackedState state, int[] buffer) {
+        int count = 0;
+        for (int piece = 0; piece < symbols.length; piece++) {
+            int cell = getCell(state, piece);
+            int row = cell / cols;
+            int col = cell % cols;
+            for (Direction direction : DIRECTIONS) {
+                int rowStep = direction == Direction.UP ? -1 : direction == Direction.DOWN ? 1 : 0;
+                int colStep = direction == Direction.LEFT ? -1 : direction == Direction.RIGHT ? 1 : 0;
+                if (!isOccupied(state, row + rowStep, col + colStep)) {
+                    continue;
+                }
+                Direction back = opposite(direction);
+                for (int r = row - rowStep, c = col - colStep; isOnBoard(r, c) && !isOccupied(state, r, c); r -= rowStep, c -= colStep) {
+                    buffer[count++] = encode(piece, back, r * cols + c);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a row and column lie on the board.
+     *
+     * @param row the row
+     * @param col the column
+     * @return true if the cell exists, false otherwise
+     */
+    public boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * Checks whether any piece stands on a cell. Cells off the board are never occupied.
+     *
+     * @param state the packed state
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if a piece stands there, false otherwise
+     */
+    public boolean isOccupied(PackedState state, int row, int col) {
+        if (!isOnBoard(row, col)) {
+            return false;
+        }
+        int cell = row * cols + col;
+        for (int piece = 0; piece < symbols.length; piece++) {
+            if (getCell(state, piece) == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the direction pointing the other way.
+     *
+     * @param direction a direction
+     * @return the opposite direction
+     */
+    public static Direction opposite(Direction direction) {
+        switch (direction) {
+            case UP:
+                return Direction.DOWN;
+            case DOWN:
+                return Direction.UP;
+            case LEFT:
+                return Direction.RIGHT;
+            default:
+                return Direction.LEFT;
+        }
+    }
+
+    /**
+     * Applies an encoded move to a state.
+     *
+     * @param state the packed state
+     * @param move a move generated for that state
+     * @return the state after the move
+     */
+    public PackedState apply(PackedState state, int move) {
+        return withCell(state, getMovePiece(move), getMoveTarget(move));
+    }
+
+    /**
+     * Converts an encoded move to the {@link Move} a PetesPike game accepts.
+     *
+     * @param state the packed state the move was generated for
+     * @param move the encoded move
+     * @return the move of the piece's current position in the move's direction
+     */
+    public Move toMove(PackedState state, int move) {
+        return new Move(toPosition(getCell(state, getMovePiece(move))), getMoveDirection(move));
+    }
+
+    /**
+     * Works out the move that turns one state into another that differs by a single slide.
+     *
+     * @param from the state before the move
+     * @param to the state after the move
+     * @return the move of the piece that changed cells
+     */
+    public Move toMove(PackedState from, PackedState to) {
+        for (int piece = 0; piece < symbols.length; piece++) {
+            int source = getCell(from, piece);
+            int target = getCell(to, piece);
+            if (source != target) {
+                Direction direction;
+                if (source / cols == target / cols) {
+                    direction = target > source ? Direction.RIGHT : Direction.LEFT;
+                } else {
+                    direction = target > source ? Direction.DOWN : Direction.UP;
+                }
+                return new Move(toPosition(source), direction);
+            }
+        }
+        throw new IllegalArgumentException("states do not differ by a move");
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param piece the piece index
+     * @param direction the direction the piece slides in
+     * @param target the cell the piece stops on
+     * @return the encoded move
+     */
+    public static int encode(int piece, Direction direction, int target) {
+        return target << 8 | piece << 2 | direction.ordinal();
+    }
+
+    public static int getMovePiece(int move) {
+        return (move >>> 2) & 0x3F;
+    }
+
+    public static Direction getMoveDirection(int move) {
+        return DIRECTIONS[move & 0x3];
+    }
+
+    public static int getMoveTarget(int move) {
+        return move >>> 8;
+    }
+}
@@ -0,0 +1,133 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import backtracker.HashedConfiguration;
+
+/**
+ * A lightweight configuration for the backtracking and breadth-first solvers. It holds a
+ * {@link PackedState} and a link to the configuration it came from, so a search node costs
+ * a few dozen bytes instead of a full {@link PetesPike} copy and its own move list.
+ * Configurations are compared by the canonical form of their state, so boards that are
+ * mirror images of each other or only differ by goat labels are explored once.
+ */
+public class PackedSolver implements HashedConfiguration<PackedSolver> {
+    private final PackedBoard board;
+    private final PackedState state;
+    private final PackedState key;
+    private final PackedSolver parent;
+    private final int move;
+
+    /**
+     * Constructs the starting configuration for a packed board.
+     *
+     * @param board the packed layout of the puzzle
+     * @param state the starting state
+     */
+    public PackedSolver(PackedBoard board, PackedState state) {
+        this(board, state, null, 0);
+    }
+
+    /**
+     * Constructs the starting configuration for the current state of a game.
+     *
+     * @param petesPike the game to solve
+     */
+    public PackedSolver(PetesPike petesPike) {
+        this.board = new PackedBoard(petesPike);
+        this.state = board.pack(petesPike);
+        this.key = board.canonical(state);
+        this.parent = null;
+        this.move = 0;
+    }
+
+    private PackedSolver(PackedBoard board, PackedState state, PackedSolver parent, int move) {
+        this.board = board;
+        this.state = state;
+        this.key = board.canonical(state);
+        this.parent = parent;
+        this.move = move;
+    }
+
+    public PackedBoard getBoard() {
+        return board;
+    }
+
+    public PackedState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the moves that lead from the starting configuration to this one.
+     *
+     * @return the list of moves, empty for the starting configuration
+     */
+    public List<Move> getMoves() {
+        List<Move> moves = new ArrayList<>();
+        for (PackedSolver current = this; current.parent != null; current = current.parent) {
+            moves.add(board.toMove(current.parent.state, current.move));
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    @Override
+    public Collection<PackedSolver> getSuccessors() {
+        int[] buffer = new int[board.getMaxMoves()];
+        int count = board.generateMoves(state, buffer);
+        List<PackedSolver> successors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            successors.add(new PackedSolver(board, board.apply(state, buffer[i]), this, buffer[i]));
+        }
+        return successors;
+    }
+
+    /**
+     * Every generated move is legal, so every configuration is valid.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public boolean isGoal() {
+        return board.isGoal(state);
+    }
+
+    @Override
+    public long getHashKey() {
+        return key.getHashKey();
+    }
+
+    /**
+     * Two configurations are equal when their states have the same canonical form.
+     *
+     * @param obj the object to compare with
+     * @return true if both states are the same up to symmetry and goat labels, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof PackedSolver) {
+            PackedSolver other = (PackedSolver)obj;
+            return this.key.equals(other.key);
+        }else{
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString(){
+        return "Moves: " + getMoves().toString();
+    }
+}
@@ -0,0 +1,103 @@
+package petespike.model;
+
+import java.util.Arrays;
+
+/**
+ * A compact, immutable snapshot of where Pete and the goats stand. Each piece's cell index
+ * is packed into a few bits of a {@code long}; boards whose pieces fit in 64 bits use a
+ * single word, larger ones spill the remaining pieces into a small {@code long[]}.
+ * The layout is defined by the {@link PackedBoard} that created the state.
+ */
+public final class PackedState {
+    private final long head;
+    private final long[] tail;
+
+    /**
+     * Creates a packed state from its words.
+     *
+     * @param head the first word of packed cells
+     * @param tail the remaining words, or null when every piece fits in the first word
+     */
+    PackedState(long head, long[] tail) {
+        this.head = head;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns one word of packed cells.
+     *
+     * @param index the index of the word, 0 for the first one
+     * @return the packed word
+     */
+    long getWord(int index) {
+        return index == 0 ? head : tail[index - 1];
+    }
+
+    /**
+     * Returns a copy of this state with one word replaced.
+     *
+     * @param index the index of the word to replace
+     * @param word the new packed word
+     * @return the new state
+     */
+    PackedState withWord(int index, long word) {
+        if (index == 0) {
+            return new PackedState(word, tail);
+        }
+        long[] words = tail.clone();
+        words[index - 1] = word;
+        return new PackedState(head, words);
+    }
+
+    /**
+     * Returns a 64-bit hash of this state. States that fit in one word get distinct keys,
+     * since the word is only run through a reversible mix.
+     *
+     * @return the 64-bit hash of the packed cells
+     */
+    public long getHashKey() {
+        long hash = mix(head);
+        if (tail != null) {
+            for (long word : tail) {
+                hash = mix(hash ^ word) + 0x9E3779B97F4A7C15L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3, a bijection that spreads every input bit.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof PackedState) {
+            PackedState other = (PackedState)obj;
+            return this.head == other.head && Arrays.equals(this.tail, other.tail);
+        }else{
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = getHashKey();
+        return (int)(hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        if (tail == null) {
+            return Long.toHexString(head);
+        }
+        return Long.toHexString(head) + Arrays.toString(tail);
+    }
+}
@@ -0,0 +1,132 @@
+package petespike.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A breadth-first search that expands each level of the search on several threads. The
+ * frontier is cut into chunks, every worker generates the successors of its chunk, and a
+ * concurrent map keyed by the canonical form of each board keeps it, and every board
+ * symmetric to it, to the first worker that reached it.
+ * The next level starts once every chunk is done, so the first goal found is still one
+ * with the fewest moves, and exhausting the boards proves a puzzle has no solution.
+ */
+public class ParallelBreadthFirstSolver {
+    /*
+     * Frontier states per task; smaller levels run as a single task.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    private final PackedBoard board;
+    private final ForkJoinPool pool;
+    private long explored;
+
+    /**
+     * Constructs a solver running on the common pool.
+     *
+     * @param board the packed layout of the puzzle
+     */
+    public ParallelBreadthFirstSolver(PackedBoard board) {
+        this(board, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a solver running on the given pool.
+     *
+     * @param board the packed layout of the puzzle
+     * @param pool the pool whose threads expand the frontier
+     */
+    public ParallelBreadthFirstSolver(PackedBoard board, ForkJoinPool pool) {
+        this.board = board;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the number of distinct boards the last solve reached.
+     *
+     * @return the number of boards stored in the visited map
+     */
+    public long getExplored() {
+        return explored;
+    }
+
+    /**
+     * Finds a shortest solution from a state.
+     *
+     * @param start the starting state
+     * @return the moves of a shortest solution, or null if the puzzle has no solution or the
+     *  calling thread was interrupted
+     */
+    public List<Move> solve(PackedState start) {
+        ConcurrentHashMap<PackedState, PackedState> parents = new ConcurrentHashMap<>();
+        AtomicReference<PackedState> goal = new AtomicReference<>();
+        parents.put(board.canonical(start), start);
+        if (board.isGoal(start)) {
+            goal.set(start);
+        }
+        List<PackedState> frontier = Collections.singletonList(start);
+        try {
+            while (goal.get() == null && !frontier.isEmpty()) {
+                List<Callable<List<PackedState>>> tasks = new ArrayList<>();
+                for (int from = 0; from < frontier.size(); from += CHUNK_SIZE) {
+                    List<PackedState> chunk = frontier.subList(from, Math.min(frontier.size(), from + CHUNK_SIZE));
+                    tasks.add(() -> expand(chunk, parents, goal));
+                }
+                List<PackedState> next = new ArrayList<>();
+                for (Future<List<PackedState>> result : pool.invokeAll(tasks)) {
+                    next.addAll(result.get());
+                }
+                frontier = next;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            explored = parents.size();
+        }
+
+        if (goal.get() == null) {
+            return null;
+        }
+        List<Move> moves = new ArrayList<>();
+        for (PackedState state = goal.get(); !state.equals(start); ) {
+            PackedState parent = parents.get(board.canonical(state));
+            moves.add(board.toMove(parent, state));
+            state = parent;
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    /**
+     * Generates the unseen successors of one chunk of the frontier.
+     */
+    private List<PackedState> expand(List<PackedState> chunk, ConcurrentHashMap<PackedState, PackedState> parents,
+            AtomicReference<PackedState> goal) {
+        int[] moves = new int[board.getMaxMoves()];
+        List<PackedState> next = new ArrayList<>();
+        for (PackedState state : chunk) {
+            int count = board.generateMoves(state, moves);
+            for (int i = 0; i < count; i++) {
+                PackedState child = board.apply(state, moves[i]);
+                if (parents.putIfAbsent(board.canonical(child), state) == null) {
+                    if (board.isGoal(child)) {
+                        goal.compareAndSet(null, child);
+                    } else {
+                        next.add(child);
+                    }
+                }
+            }
+        }
+        return next;
+    }
+}
@@ -2,16 +2,22 @@ package petespike.model;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 import java.util.stream.IntStream;
 
-import backtracker.Backtracker;
+import backtracker.InPlaceBacktracker;
+import backtracker.MutableConfiguration;
+import backtracker.SolveOptions;
+import backtracker.SolveResult;
+import backtracker.SolveStatus;
+import backtracker.TranspositionTable;
 
 /**
  * Represents the game board and logic for Pete's Pike. This class handles game state,
  * move validation, and interactions with the game observer.
  */
-public class PetesPike {
+public class PetesPike implements MutableConfiguration {
     private final char MOUNTAINTOP_SYMBOL = 'T';
     public final char EMPTY_SYMBOL  = '-';
     public final char PETE_SYMBOL  = 'P';
@@ -26,6 +32,16 @@ public class PetesPike {
     private Position petePosition;
     private PetesPikeObserver observer;
     private PetesPikeSolver petesPikeSolver;
+    private long[][] zobristKeys;
+    private long zobristHash;
+    private Occupancy occupancy;
+    private int[] moveBuffer;
+    private int[] cellBuffer;
+    private Relevance reachability; // made on first use by isProvablyUnsolvable
+    private Position[] cellPositions; // the position of every cell, so in-place moves allocate none
+    private Relevance relevance;
+    private int[] relevantStack;
+    private int relevantDepth;
 
 
        /**
@@ -33,7 +49,7 @@ public class PetesPike {
      * This constructor is typically used for creating a new game state based on an existing one.
      * @param other The PetesPike instance to copy from.
      */
-    protected PetesPike(PetesPike other){
+    public PetesPike(PetesPike other){
         this.rows = other.rows;
         this.cols = other.cols;
         // Deep copy of the board 
@@ -57,6 +73,15 @@ public class PetesPike {
         for (Map.Entry<Character, Position> entry : other.elements.entrySet()) {
             this.elements.put(entry.getKey(), new Position(entry.getValue().getRow(), entry.getValue().getCol()));
         }
+        // Zobrist keys never change, so the copy shares them
+        this.zobristKeys = other.zobristKeys;
+        this.zobristHash = other.zobristHash;
+        this.occupancy = new Occupancy(other.occupancy);
+        this.moveBuffer = new int[other.moveBuffer.length];
+        this.cellBuffer = new int[other.cellBuffer.length];
+        // positions never change either, so the copy shares the position of every cell
+        this.cellPositions = other.cellPositions;
+        setRelevancePruning(other.relevance != null);
         // Set observer to null as specified
         this.observer = null;
     }
@@ -87,8 +112,6 @@ public class PetesPike {
      */
     public boolean isValid(Move move) throws PetesPikeException{
         Position position = move.getPosition();
-        Position nextPosition =null ;
-        Move nextmove =null;
         
         int row = position.getRow();
         int col = position.getCol();
@@ -106,94 +129,12 @@ public class PetesPike {
             return false;
             // throw new PetesPikeException("The given position is invalid." + '\n');
         }
-        if(direction == Direction.DOWN || direction == Direction.UP){
-            for(char key : elements.keySet()){
-                Position tempKeyP = elements.get(key);
-                if(tempKeyP.getCol()==col && key!=symbolAtPosition){
-                    if(direction == Direction.UP && tempKeyP.getRow()-row < 1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()+1][tempKeyP.getCol()])
-                    && this.board[tempKeyP.getRow()+1][tempKeyP.getCol()]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getRow()+2; i < row; i++){
-                            if(GOAT_SYMBOLS.contains(this.board[i][tempKeyP.getCol()])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                            row = tempKeyP.getRow()+1;
-                            nextPosition = new Position(row, col);
-                            nextmove = new Move(nextPosition, Direction.UP);
-                        }    
-                    }
-                    if(direction == Direction.DOWN && tempKeyP.getRow()-row >1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()-1][tempKeyP.getCol()])
-                    && this.board[tempKeyP.getRow()-1][tempKeyP.getCol()]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getRow()-2; i > row; i--){
-                            if(GOAT_SYMBOLS.contains(this.board[i][tempKeyP.getCol()])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                            row = tempKeyP.getRow()-1;
-                            nextPosition = new Position(row, col);
-                            nextmove = new Move(nextPosition, Direction.DOWN);
-                        }
-
-                    }
-                }
-            }
-        }
-        if(direction == Direction.RIGHT || direction == Direction.LEFT){
-            for(char key : elements.keySet()){
-                Position tempKeyP = elements.get(key);
-                if(elements.get(key).getRow()==row && key!=symbolAtPosition){ 
-                    if(direction == Direction.RIGHT && elements.get(key).getCol()-col >1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][tempKeyP.getCol()-1])
-                    && this.board[tempKeyP.getRow()][tempKeyP.getCol()-1]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getCol()-2; i > col; i--){
-                            if(GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][i])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                        col = elements.get(key).getCol()-1;
-                        nextPosition = new Position(row, col);
-                        nextmove = new Move(nextPosition, Direction.RIGHT);
-                        }
-                    }
-                    if(direction == Direction.LEFT && elements.get(key).getCol()-col <1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][tempKeyP.getCol()+1])
-                    && this.board[tempKeyP.getRow()][tempKeyP.getCol()+1]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getCol()+2; i < col; i++){
-                            if(GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][i])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                        col = elements.get(key).getCol()+1;
-                        nextPosition = new Position(row, col);
-                        nextmove = new Move(nextPosition, Direction.LEFT);
-                        }
-                    }
-                }
-            }
-        }
-        // else if( this.getGameState() == GameState.WON){
-        //     System.out.println("There must be an active game to use this command");
-     
-        // }
-
-        if (nextmove == null){
+        int target = occupancy.slide(row, col, direction);
+        if (target < 0){
             return false;
             // throw new PetesPikeException("There is no piece to stop the move in the given direction."+ '\n');
         }
-        this.elements.remove(symbolAtPosition);
-        this.elements.put(symbolAtPosition,nextPosition);
-        this.board[position.getRow()][position.getCol()] = '-';
-        this.board[row][col] = symbolAtPosition;
+        movePiece(symbolAtPosition, position, new Position(target / this.cols, target % this.cols));
         return true;
 
     }
@@ -206,11 +147,34 @@ public class PetesPike {
         try(
         FileReader file = new FileReader(filename);
         BufferedReader reader = new BufferedReader(file);){
-        
+            load(reader);
+        }
+    }
+
+    /**
+     * Initializes the game board from a board layout in the file format: a "rows cols" header
+     * followed by one line per row. The reader is not closed.
+     * @param layout The reader providing the board layout.
+     * @throws IOException if there is an issue reading the layout.
+     */
+    public PetesPike(Reader layout) throws IOException{
+        load(new BufferedReader(layout));
+    }
+
+    /**
+     * Reads a board layout and sets up the board, the pieces and their hashes.
+     * @param reader The reader providing the board layout.
+     * @throws IOException if there is an issue reading the layout.
+     */
+    private void load(BufferedReader reader) throws IOException{
         String head = reader.readLine (); 
         String[]lines = head.strip().split(" ");
         this.rows = Integer.parseInt(lines[0]);
         this.cols = Integer.parseInt(lines[1]);
+        if(this.rows > Occupancy.MAX_SIZE || this.cols > Occupancy.MAX_SIZE){
+            throw new IOException("Boards may have at most " + Occupancy.MAX_SIZE + " rows and columns.");
+        }
+        this.occupancy = new Occupancy(this.rows, this.cols);
         board = new char[this.rows][this.cols];
         initialboard = new char[this.rows][this.cols]; // Initialize the initialboard
         int row=0;
@@ -223,6 +187,7 @@ public class PetesPike {
                 
                 if(GOAT_SYMBOLS.contains(this.board[row][col]) || line.charAt(col) ==PETE_SYMBOL ){
                     this.elements.put( this.board[row][col],new Position(row, col)) ;
+                    this.occupancy.set(row, col);
                 }
                 if(line.charAt(col) ==MOUNTAINTOP_SYMBOL){
                     this.mountainTopPosition = new Position(row, col);
@@ -236,7 +201,59 @@ public class PetesPike {
             
             row++;
         }
+        initZobrist();
+        this.moveBuffer = new int[getMaxMoves()];
+        this.cellBuffer = new int[GOAT_SYMBOLS.size() + 1];
+        this.cellPositions = new Position[this.rows * this.cols];
+        for(int cell = 0; cell < this.cellPositions.length; cell++){
+            this.cellPositions[cell] = new Position(cell / this.cols, cell % this.cols);
+        }
+    }
+
+    /**
+     * Creates the Zobrist keys for this board size and hashes the starting position.
+     * Every board of the same size gets the same keys, so equal positions always hash equally.
+     */
+    private void initZobrist(){
+        Random random = new Random(((long)this.rows << 32) | this.cols);
+        this.zobristKeys = new long[GOAT_SYMBOLS.size() + 1][this.rows * this.cols];
+        for(long[] keys : this.zobristKeys){
+            for(int cell = 0; cell < keys.length; cell++){
+                keys[cell] = random.nextLong();
+            }
+        }
+        this.zobristHash = computeZobristHash();
+    }
+
+    /**
+     * Hashes the positions of Pete and every goat from scratch.
+     * @return The Zobrist hash of the current positions.
+     */
+    private long computeZobristHash(){
+        long hash = 0;
+        for(Map.Entry<Character, Position> entry : elements.entrySet()){
+            hash ^= zobristKey(entry.getKey(), entry.getValue());
         }
+        return hash;
+    }
+
+    /**
+     * Returns the Zobrist key of a piece standing on a position.
+     * @param symbol The symbol of Pete or a goat.
+     * @param position The position of the piece.
+     * @return The key of that piece on that position.
+     */
+    private long zobristKey(char symbol, Position position){
+        return this.zobristKeys[pieceIndex(symbol)][position.getRow() * this.cols + position.getCol()];
+    }
+
+    /**
+     * Returns a 64-bit hash of where Pete and the goats stand. It is updated with every move,
+     * so reading it costs nothing, and equal positions on the same puzzle always hash equally.
+     * @return The Zobrist hash of the current positions.
+     */
+    public long getZobristHash(){
+        return this.zobristHash;
     }
 
     public char getBoard(int row, int col){
@@ -261,6 +278,7 @@ public class PetesPike {
         return this.cols;
     }
 
+    @Override
     public boolean isGoal(){
         Position pete = elements.get('P');
         return pete.equals(mountainTopPosition);
@@ -306,8 +324,6 @@ public class PetesPike {
      */
     public PetesPikeSolver makeMove(Move move)throws PetesPikeException{
         Position position = move.getPosition();
-        Position nextPosition =null ;
-        Move nextmove =null;
         if(isGoal()){
             System.out.print(("Congratulations, you have scal the mountain"+ '\n'));
             
@@ -335,98 +351,13 @@ public class PetesPike {
         if(board[row][col]=='T'){
             throw new PetesPikeException("can't move the mountain." + '\n');
         }
-        if(direction == Direction.DOWN || direction == Direction.UP){
-            for(char key : elements.keySet()){
-                Position tempKeyP = elements.get(key);
-                if(tempKeyP.getCol()==col && key!=symbolAtPosition){
-                    if(direction == Direction.UP && tempKeyP.getRow()-row < 1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()+1][tempKeyP.getCol()])
-                    && this.board[tempKeyP.getRow()+1][tempKeyP.getCol()]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getRow()+2; i < row; i++){
-                            if(GOAT_SYMBOLS.contains(this.board[i][tempKeyP.getCol()])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                            row = tempKeyP.getRow()+1;
-                            nextPosition = new Position(row, col);
-                            nextmove = new Move(nextPosition, Direction.UP);
-                        }    
-                    }
-                    if(direction == Direction.DOWN && tempKeyP.getRow()-row >1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()-1][tempKeyP.getCol()])
-                    && this.board[tempKeyP.getRow()-1][tempKeyP.getCol()]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getRow()-2; i > row; i--){
-                            if(GOAT_SYMBOLS.contains(this.board[i][tempKeyP.getCol()])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                            row = tempKeyP.getRow()-1;
-                            nextPosition = new Position(row, col);
-                            nextmove = new Move(nextPosition, Direction.DOWN);
-                        }
-
-                    }
-                }
-            }
-        }
-        if(direction == Direction.RIGHT || direction == Direction.LEFT){
-            for(char key : elements.keySet()){
-                Position tempKeyP = elements.get(key);
-                if(elements.get(key).getRow()==row && key!=symbolAtPosition){ 
-                    if(direction == Direction.RIGHT && elements.get(key).getCol()-col >1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][tempKeyP.getCol()-1])
-                    && this.board[tempKeyP.getRow()][tempKeyP.getCol()-1]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getCol()-2; i > col; i--){
-                            if(GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][i])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                        col = elements.get(key).getCol()-1;
-                        nextPosition = new Position(row, col);
-                        nextmove = new Move(nextPosition, Direction.RIGHT);
-                        }
-                    }
-                    if(direction == Direction.LEFT && elements.get(key).getCol()-col <1 
-                    && !GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][tempKeyP.getCol()+1])
-                    && this.board[tempKeyP.getRow()][tempKeyP.getCol()+1]!= PETE_SYMBOL){
-                        boolean noSymbsBelow = true;
-                        for(int i = tempKeyP.getCol()+2; i < col; i++){
-                            if(GOAT_SYMBOLS.contains(this.board[tempKeyP.getRow()][i])){
-                                noSymbsBelow = false;
-                            }     
-                        }
-                        if(noSymbsBelow){
-                        col = elements.get(key).getCol()+1;
-                        nextPosition = new Position(row, col);
-                        nextmove = new Move(nextPosition, Direction.LEFT);
-                        }
-                    }
-                }
-            }
-        }
-        // else if( this.getGameState() == GameState.WON){
-        //     System.out.println("There must be an active game to use this command");
-     
-        // }
-        
-        if (nextmove == null){
+        int target = occupancy.slide(row, col, direction);
+        if (target < 0){
             throw new PetesPikeException("There is no piece to stop the move in the given direction."+ '\n');
         }
         this.moveCount++;
-        this.elements.remove(symbolAtPosition);
-        this.elements.put(symbolAtPosition,nextPosition);
-        this.board[position.getRow()][position.getCol()] = '-';
-        this.board[row][col] = symbolAtPosition;
-
-        if(this.board[getMountainTop().getRow()][getMountainTop().getCol()]=='-')
-            this.board[getMountainTop().getRow()][getMountainTop().getCol()]='T';
-        notifyObserver(from , nextmove.getDirection());
+        movePiece(symbolAtPosition, position, new Position(target / this.cols, target % this.cols));
+        notifyObserver(from , direction);
         return null; // remove possible
         
     }
@@ -448,65 +379,285 @@ public class PetesPike {
     
 
 
+    /**
+     * Moves a piece to a new position, keeping the board, the elements map, the occupancy
+     * and the Zobrist hash in step. The mountain top is drawn again once a piece leaves it.
+     * @param symbol The symbol of the piece to move.
+     * @param from The position the piece stands on.
+     * @param to The position the piece moves to.
+     */
+    private void movePiece(char symbol, Position from, Position to){
+        this.zobristHash ^= zobristKey(symbol, from) ^ zobristKey(symbol, to);
+        this.elements.put(symbol, to);
+        this.occupancy.clear(from.getRow(), from.getCol());
+        this.occupancy.set(to.getRow(), to.getCol());
+        this.board[from.getRow()][from.getCol()] = EMPTY_SYMBOL;
+        this.board[to.getRow()][to.getCol()] = symbol;
+        if(this.board[mountainTopPosition.getRow()][mountainTopPosition.getCol()] == EMPTY_SYMBOL)
+            this.board[mountainTopPosition.getRow()][mountainTopPosition.getCol()] = MOUNTAINTOP_SYMBOL;
+    }
+
    /**
-     * Generates a list of all possible moves based on the current game board state. This method checks
-     * for every character on the board (both Pete and goats) and determines if they can move to a new position
-     * based on the game rules. Moves are considered possible if there's no adjacent character in the intended
-     * direction and the movement does not result in placing a character outside the bounds of the board.
+     * Generates a list of all possible moves based on the current game board state. Each piece
+     * (Pete and the goats) is tried in every direction; a move is possible when another piece
+     * stops the slide and is not already next to the moving piece.
      *
      * @return A list of {@link Move} objects, each representing a valid move that can be made given the
      * current board state. If no moves are possible, returns an empty list.
      */
     public List<Move> getPossibleMoves(){
-        List<Move> moveList = new ArrayList<>();
-        Position p = new Position(0, 0);
-        Position pp = new Position(0, 0);
-        for(char key : elements.keySet()){
-            for(char key2 : elements.keySet()){
-                p =this.elements.get(key);
-                if(key2==key)
-                    continue;
-                pp = this.elements.get(key2);
-                Direction d;
-                Position temp;
-                Move move =null;
-                if(p.getCol()==pp.getCol()){
-                    
-                    if(p.getRow()-pp.getRow()>1 && !GOAT_SYMBOLS.contains(this.board[pp.getRow()+1][pp.getCol()]) && this.board[pp.getRow()+1][pp.getCol()]!= PETE_SYMBOL ){//make sure the other one is not next to it
-                        d = Direction.UP;
-                        temp = new Position(p.getRow(), p.getCol());
-                        move = new Move(temp,d);
-                    }if (p.getRow()-pp.getRow() < 1 && !GOAT_SYMBOLS.contains(this.board[pp.getRow()-1][pp.getCol()]) && this.board[pp.getRow()-1][pp.getCol()]!= PETE_SYMBOL){
-                        d = Direction.DOWN;
-                        temp = new Position(p.getRow(), p.getCol());
-                        move = new Move(temp,d);
-                    }
-                    //move = new Move(temp,d);
-                    
-                }else if(p.getRow()==pp.getRow()){
-                    // Direction d;
-                    // Position temp;
-                    if(p.getCol()-pp.getCol()>1 && !GOAT_SYMBOLS.contains(this.board[pp.getRow()][pp.getCol()+1]) && this.board[pp.getRow()][pp.getCol()+1]!= PETE_SYMBOL){ //make sure the other one is not next to it
-                        d = Direction.LEFT;
-                        temp = new Position(p.getRow(), p.getCol());
-                        move = new Move(temp,d);
-                    }if(p.getCol()-pp.getCol()< 1 && !GOAT_SYMBOLS.contains(this.board[pp.getRow()][pp.getCol()-1]) && this.board[pp.getRow()][pp.getCol()-1]!= PETE_SYMBOL){
-                        d = Direction.RIGHT;
-                        temp = new Position(p.getRow(), p.getCol());
-                        move = new Move(temp,d);
-                    }
-                    
-                }
-               
-               
-                // System.out.println(moveList.toString());
-                if(!moveList.contains(move) && move !=null){
-                    moveList.add(move);
+        int count = generateMoves(this.moveBuffer);
+        List<Move> moveList = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            moveList.add(toMove(this.moveBuffer[i]));
+        }
+        return moveList; 
+    }
+
+    /**
+     * Returns how many moves {@link #generateMoves(int[])} can write at most.
+     * @return Four moves for every piece on the board.
+     */
+    @Override
+    public int getMaxMoves(){
+        return 4 * elements.size();
+    }
+
+    /**
+     * Writes every possible move into a buffer, without creating any objects. A move is
+     * encoded as {@code target << 8 | piece << 2 | direction.ordinal()}, where the target is
+     * the cell index ({@code row * cols + col}) the piece stops on and the piece is 0 for Pete
+     * and the goat's digit plus one for a goat. Pieces come in the order of
+     * {@link #getElement()}, each trying UP, DOWN, LEFT and RIGHT.
+     * @param buffer The buffer to fill, at least {@link #getMaxMoves()} long.
+     * @return The number of moves written.
+     */
+    public int generateMoves(int[] buffer){
+        int count = 0;
+        Direction[] directions = Direction.values();
+        int relevant = this.relevance == null ? -1 : this.relevantStack[this.relevantDepth];
+        for(Map.Entry<Character, Position> entry : elements.entrySet()){
+            int piece = pieceIndex(entry.getKey());
+            if((relevant & 1 << piece) == 0){
+                continue;
+            }
+            int row = entry.getValue().getRow();
+            int col = entry.getValue().getCol();
+            for(Direction direction : directions){
+                int target = occupancy.slide(row, col, direction);
+                if(target >= 0){
+                    buffer[count++] = target << 8 | piece << 2 | direction.ordinal();
                 }
-                
             }
         }
-        return moveList; 
+        return count;
+    }
+
+    @Override
+    public int getMoves(int[] buffer){
+        return generateMoves(buffer);
+    }
+
+    /**
+     * Applies a move written by {@link #generateMoves(int[])} in place. Unlike
+     * {@link #makeMove(Move)} it does not count the move or notify the observer, so a search
+     * can walk the game tree on this one board.
+     * @param move The encoded move.
+     * @return A token for {@link #undoMove(long)}, holding the move and the cell it started from.
+     */
+    @Override
+    public long applyMove(int move){
+        char symbol = pieceSymbol((move >>> 2) & 0xF);
+        Position from = elements.get(symbol);
+        int target = move >>> 8;
+        int fromCell = from.getRow() * this.cols + from.getCol();
+        movePiece(symbol, from, this.cellPositions[target]);
+        if(this.relevance != null){
+            pushRelevant();
+        }
+        return (long)fromCell << 32 | (move & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Undoes the last move applied with {@link #applyMove(int)}.
+     * @param token The token returned by {@link #applyMove(int)}.
+     */
+    @Override
+    public void undoMove(long token){
+        char symbol = pieceSymbol(((int)token >>> 2) & 0xF);
+        int from = (int)(token >>> 32);
+        movePiece(symbol, elements.get(symbol), this.cellPositions[from]);
+        if(this.relevance != null){
+            this.relevantDepth--;
+        }
+    }
+
+    /**
+     * Turns relevance pruning on or off. While it is on, {@link #generateMoves(int[])} skips
+     * the pieces {@link Relevance} finds cannot change whether Pete reaches the mountain top,
+     * and writes no moves at all once he can no longer reach it. The analysis is redone after
+     * every {@link #applyMove(int)}, keeping only pieces that were relevant before the move.
+     * @param enabled Whether to skip irrelevant pieces.
+     */
+    public void setRelevancePruning(boolean enabled){
+        if(!enabled){
+            this.relevance = null;
+            return;
+        }
+        this.relevance = new Relevance(this.rows, this.cols,
+            this.mountainTopPosition.getRow() * this.cols + this.mountainTopPosition.getCol(), GOAT_SYMBOLS.size() + 1);
+        this.relevantStack = new int[16];
+        this.relevantDepth = -1;
+        pushRelevant();
+    }
+
+    /**
+     * Checks whether a piece can still change whether Pete reaches the mountain top.
+     * @param symbol The symbol of Pete or a goat.
+     * @return true if the piece is relevant, or if relevance pruning is off.
+     */
+    public boolean isRelevant(char symbol){
+        return this.relevance == null || (this.relevantStack[this.relevantDepth] & 1 << pieceIndex(symbol)) != 0;
+    }
+
+    /**
+     * Checks, without searching, whether Pete can never reach the mountain top from the current
+     * board. {@link Relevance} over-approximates every cell he can ever stop on, which takes
+     * microseconds; if the mountain top is not among them the board has no solution. A false
+     * result does not mean that the board has one.
+     * @return true if the board is proved to have no solution.
+     */
+    public boolean isProvablyUnsolvable(){
+        return reachability().analyze(pieceCells()) == 0;
+    }
+
+    /**
+     * Returns the analysis {@link #isProvablyUnsolvable()} uses, making it on first use.
+     */
+    private Relevance reachability(){
+        if(this.reachability == null){
+            this.reachability = new Relevance(this.rows, this.cols,
+                this.mountainTopPosition.getRow() * this.cols + this.mountainTopPosition.getCol(), GOAT_SYMBOLS.size() + 1);
+        }
+        return this.reachability;
+    }
+
+    /**
+     * Lets this board use the analysis {@link #isProvablyUnsolvable()} keeps on another board of
+     * the same puzzle, so the boards a search derives from each other build it once. The
+     * analysis keeps its work in place, so only boards used by the same thread may share it.
+     * @param other The board to share the analysis of.
+     */
+    void shareReachability(PetesPike other){
+        this.reachability = other.reachability();
+    }
+
+    /**
+     * Checks whether any piece can move, without allocating.
+     * @return true if {@link #generateMoves(int[])} writes at least one move.
+     */
+    public boolean hasMoves(){
+        return generateMoves(this.moveBuffer) > 0;
+    }
+
+    /**
+     * Returns the cell of every piece index, or -1 for a goat that is not on the board. The
+     * cells are written to a buffer of this board, overwritten by the next call.
+     * @return The cells, indexed as in {@link #pieceIndex(char)}.
+     */
+    private int[] pieceCells(){
+        int[] cells = this.cellBuffer;
+        Arrays.fill(cells, -1);
+        for(Map.Entry<Character, Position> entry : elements.entrySet()){
+            cells[pieceIndex(entry.getKey())] = entry.getValue().getRow() * this.cols + entry.getValue().getCol();
+        }
+        return cells;
+    }
+
+    /**
+     * Analyzes the current board and pushes its relevant pieces.
+     */
+    private void pushRelevant(){
+        int relevant = this.relevance.analyze(pieceCells());
+        if(this.relevantDepth >= 0){
+            relevant &= this.relevantStack[this.relevantDepth];
+        }
+        if(++this.relevantDepth == this.relevantStack.length){
+            this.relevantStack = Arrays.copyOf(this.relevantStack, 2 * this.relevantStack.length);
+        }
+        this.relevantStack[this.relevantDepth] = relevant;
+    }
+
+    /**
+     * Every move written by {@link #generateMoves(int[])} is legal, so every board reached is valid.
+     * @return true
+     */
+    @Override
+    public boolean isValid(){
+        return true;
+    }
+
+    @Override
+    public long getHashKey(){
+        return this.zobristHash;
+    }
+
+    /**
+     * Turns a sequence of encoded moves, starting from the current board, into moves.
+     * The board is left as it was.
+     * @param moves The encoded moves, as returned by {@link InPlaceBacktracker#solve(MutableConfiguration)}.
+     * @return The moves, each from the position its piece stands on at that point.
+     */
+    public List<Move> toMoves(int[] moves){
+        List<Move> moveList = new ArrayList<>(moves.length);
+        long[] tokens = new long[moves.length];
+        for(int i = 0; i < moves.length; i++){
+            moveList.add(toMove(moves[i]));
+            tokens[i] = applyMove(moves[i]);
+        }
+        for(int i = moves.length - 1; i >= 0; i--){
+            undoMove(tokens[i]);
+        }
+        return moveList;
+    }
+
+    /**
+     * Finds where a move would leave its piece, without making it.
+     * @param move The move.
+     * @return The position the piece would stop on, or null if the move is not possible.
+     */
+    public Position getTarget(Move move){
+        Position from = move.getPosition();
+        int target = occupancy.slide(from.getRow(), from.getCol(), move.getDirection());
+        return target < 0 ? null : new Position(target / this.cols, target % this.cols);
+    }
+
+    /**
+     * Turns a move written by {@link #generateMoves(int[])} back into a {@link Move}.
+     * @param move The encoded move.
+     * @return The move of the piece from its current position.
+     */
+    public Move toMove(int move){
+        Position from = elements.get(pieceSymbol((move >>> 2) & 0xF));
+        return new Move(new Position(from.getRow(), from.getCol()), Direction.values()[move & 3]);
+    }
+
+    /**
+     * Returns the index of a piece in encoded moves and in the Zobrist keys.
+     * @param symbol The symbol of Pete or a goat.
+     * @return 0 for Pete, the goat's digit plus one for a goat.
+     */
+    private int pieceIndex(char symbol){
+        return symbol == PETE_SYMBOL ? 0 : symbol - '0' + 1;
+    }
+
+    /**
+     * Returns the symbol of a piece index.
+     * @param piece The index from {@link #pieceIndex(char)}.
+     * @return The symbol of Pete or the goat.
+     */
+    private char pieceSymbol(int piece){
+        return piece == 0 ? PETE_SYMBOL : (char)('0' + piece - 1);
     }
 
     /**
@@ -514,6 +665,7 @@ public class PetesPike {
      * @param ppl The PetesPike instance to reset to.
      */
     public void reset(PetesPike ppl) {
+        this.occupancy.clearAll();
         int row=0;
         while(row<rows){
             //System.out.println(line);
@@ -522,6 +674,7 @@ public class PetesPike {
                 
                 if(GOAT_SYMBOLS.contains(this.board[row][col]) || this.board[row][col] ==PETE_SYMBOL ){
                     this.elements.put( this.board[row][col],new Position(row, col)) ;
+                    this.occupancy.set(row, col);
                 }
                 if(this.board[row][col] ==PETE_SYMBOL){
                     this.petePosition = new Position(row, col);
@@ -534,19 +687,76 @@ public class PetesPike {
         
 
         this.moveCount = 0;
+        this.zobristHash = computeZobristHash();
         
     }
     
+    /**
+     * Suggests the next move of a shortest solution from the current board. Shortest solutions
+     * are looked up in the {@link SolutionCache} first, and cached once found.
+     * @return The move to make next, or null if the game is won or cannot be won from here.
+     */
+    public Move getHint(){
+        SolutionCache cache = SolutionCache.getDefault();
+        List<Move> moves = cache == null ? null : cache.get(this, true);
+        if(moves == null){
+            PetesPikeSolver solution = new PetesPikeSolver(this).solveShortest(this, false);
+            if(solution == null){
+                return null;
+            }
+            moves = solution.getMoves();
+            if(cache != null){
+                cache.put(this, moves, true);
+            }
+        }
+        return moves.isEmpty() ? null : moves.get(0);
+    }
+
     /**
      * Attempts to solve the game using the backtracking algorithm.
      * @throws PetesPikeException if the solution process fails.
      */
     public void solve() throws PetesPikeException{
-        PetesPikeSolver pps = new PetesPikeSolver(this);
-        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false);
-        PetesPikeSolver solution = backtracker.solve(pps);
-        // System.out.println(solution);
-        List<Move> ppSolved = solution.getMoves();
+        if(solve(SolveOptions.UNLIMITED) == SolveStatus.UNSOLVABLE){
+            System.out.println("This puzzle has no solution." + '\n');
+        }
+    }
+
+    /**
+     * Attempts to solve the game within the limits of some options, and plays the solution
+     * if one is found. A solution in the {@link SolutionCache} is played without searching;
+     * otherwise the solution found is added to the cache. Boards {@link #isProvablyUnsolvable()}
+     * rejects are not searched at all, and the search skips pieces that cannot
+     * change whether Pete reaches the mountain top (see {@link #setRelevancePruning(boolean)}).
+     * A search that runs out of time or nodes, or is cancelled, leaves the board as it was.
+     * @param options The time limit, node budget, depth limit and cancellation token of the search.
+     * @return How the search ended.
+     * @throws PetesPikeException if the solution process fails.
+     */
+    public SolveStatus solve(SolveOptions options) throws PetesPikeException{
+        if(isProvablyUnsolvable()){
+            return SolveStatus.UNSOLVABLE;
+        }
+        SolutionCache cache = SolutionCache.getDefault();
+        List<Move> ppSolved = cache == null ? null : cache.get(this, false);
+        if(ppSolved == null){
+            InPlaceBacktracker backtracker = new InPlaceBacktracker(false, new TranspositionTable());
+            SolveResult<int[]> result;
+            setRelevancePruning(true);
+            try{
+                result = backtracker.solve(this, options);
+            }finally{
+                // a search that throws must not leave the player's board skipping pieces
+                setRelevancePruning(false);
+            }
+            if(result.getStatus() != SolveStatus.SOLVED){
+                return result.getStatus();
+            }
+            ppSolved = toMoves(result.getSolution());
+            if(cache != null){
+                cache.put(this, ppSolved, false);
+            }
+        }
         for(Move move: ppSolved){
             
             this.makeMove(new Move(move.getPosition(), move.getDirection()));
@@ -558,6 +768,7 @@ public class PetesPike {
             
         }
         // System.out.println("Congratulations, you have scal the mountain!"+ '\n');
+        return SolveStatus.SOLVED;
     }
 
 
@@ -8,16 +8,28 @@ import java.io.IOException;
 // import java.util.*;
 
 import backtracker.Backtracker;
-import backtracker.Configuration;
+import backtracker.BreadthFirstSolver;
+import backtracker.HashedConfiguration;
+import backtracker.IterativeBacktracker;
+import backtracker.ParallelBacktracker;
+import backtracker.TranspositionTable;
 
 /**
  * This class represents a solver for the Pete's Pike problem using a backtracking algorithm.
  * It implements the Configuration interface to provide specific configurations for the backtracking algorithm.
  */
-public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
+public class PetesPikeSolver implements HashedConfiguration<PetesPikeSolver>{
+
+    /**
+     * How many levels of moves the parallel solver forks as separate tasks.
+     */
+    private static final int PARALLEL_SPLIT_DEPTH = 3;
 
     private PetesPike petesPike;
     private List<Move> moves;
+    private DeadStatePredicate deadState = DeadStatePredicate.DEFAULT;
+    private MoveOrdering ordering;
+    private int moveKey = -1;
 
 
     /**
@@ -29,6 +41,7 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
     public PetesPikeSolver(PetesPike petesPike){
         this.petesPike = petesPike;
         this.moves = new ArrayList<>();  // Initialize with empty list for the initial state.
+        this.ordering = new MoveOrdering(petesPike.getRows(), petesPike.getCol());
     }
 
     /**
@@ -41,6 +54,22 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
     public PetesPikeSolver(PetesPike petesPike, List<Move> moves){
             this.petesPike = petesPike;
             this.moves = new ArrayList<>(moves);  // Copy current moves and add new ones as we progress.
+            this.ordering = new MoveOrdering(petesPike.getRows(), petesPike.getCol());
+    }
+
+    /**
+     * Constructs the successor of a solver, which shares its dead-state predicate and its move
+     * ordering, so what the ordering learns carries over the whole search.
+     * 
+     * @param parent the solver the successor comes from
+     * @param petesPike the board after the move
+     * @param moves the moves leading to the board, owned by the new solver
+     */
+    private PetesPikeSolver(PetesPikeSolver parent, PetesPike petesPike, List<Move> moves){
+        this.petesPike = petesPike;
+        this.moves = moves;
+        this.deadState = parent.deadState;
+        this.ordering = parent.ordering;
     }
 
     /**
@@ -71,9 +100,31 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
         this.moves = moves;
     }
 
+    /**
+     * Sets the rules {@link #isValid()} uses to drop boards that can never be won. Successors
+     * inherit the rules of the solver they come from.
+     * 
+     * @param deadState the rules, {@link DeadStatePredicate#DEFAULT} unless set
+     */
+    public void setDeadStatePredicate(DeadStatePredicate deadState){
+        this.deadState = deadState;
+    }
+
+    /**
+     * Sets the ordering {@link #getSuccessors()} tries moves in. Successors share the ordering
+     * of the solver they come from, so what it learns carries over the whole search.
+     * 
+     * @param ordering the ordering, a new {@link MoveOrdering} unless set, or null to keep the
+     *  order of {@link PetesPike#getPossibleMoves()}
+     */
+    public void setMoveOrdering(MoveOrdering ordering){
+        this.ordering = ordering;
+    }
+
     /**
      * Generates a collection of all possible successors from the current configuration.
      * Each successor represents a valid state of the problem after making a possible move.
+     * They come best first according to the {@link MoveOrdering} of this solver.
      * 
      * @return a collection of PetesPikeSolver instances, each representing a successor state
      */
@@ -81,13 +132,21 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
     public Collection<PetesPikeSolver> getSuccessors() {
         List<PetesPikeSolver> successors = new ArrayList<>();
         List<Move> possibleMoves = this.petesPike.getPossibleMoves();
+        if(this.ordering != null){
+            possibleMoves = this.ordering.order(this.petesPike, possibleMoves);
+        }
         for(Move move : possibleMoves){
             try {
                 PetesPike pp = new PetesPike(this.petesPike);
+                pp.shareReachability(this.petesPike);
+                char symbol = this.petesPike.getSymbolAt(move.getPosition());
                 pp.makeMove(move);
                 List<Move> newMovesList = new ArrayList<>(this.moves);  // Copy current move list
                 newMovesList.add(move);  // Add the new move
-                PetesPikeSolver solver = new PetesPikeSolver(pp, newMovesList);
+                PetesPikeSolver solver = new PetesPikeSolver(this, pp, newMovesList);
+                if(this.ordering != null){
+                    solver.moveKey = this.ordering.keyOf(symbol, move.getDirection(), pp.getElement().get(symbol));
+                }
             
                 successors.add(solver);
             } catch (PetesPikeException e) {
@@ -97,13 +156,18 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
         return successors;
     }
     /**
-     * Checks if the current configuration is valid.
+     * Checks if the current configuration is valid: won, or not proved dead by the
+     * {@link DeadStatePredicate} of this solver.
      * 
      * @return true if the current configuration is valid, false otherwise
      */
     @Override
     public boolean isValid() {
-        return this.petesPike.getPossibleMoves() != null;
+        boolean valid = isGoal() || !this.deadState.isDead(this.petesPike);
+        if(!valid && this.ordering != null && this.moveKey >= 0){
+            this.ordering.dead(this.moveKey);
+        }
+        return valid;
 
     }
     /**
@@ -119,31 +183,31 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
         return pete.equals(this.petesPike.getMountainTop());
     }
 
+    /**
+     * Returns the Zobrist hash of the board, so the backtracker can recognize boards it has already explored.
+     * 
+     * @return the hash of the current positions of Pete and the goats
+     */
+    @Override
+    public long getHashKey() {
+        return this.petesPike.getZobristHash();
+    }
+
 
     /**
      * Solves the problem starting from the provided PetesPikeSolver instance.
-     * Uses recursive backtracking to find a solution if it exists.
+     * Uses iterative backtracking, which keeps its own stack and so handles solutions of any
+     * length, and skips boards it has already explored.
      * 
      * @param petesPike the initial solver configuration to start the solving process
      * @return the solved PetesPikeSolver instance if a solution is found, null otherwise
      */
     public PetesPikeSolver solve(PetesPikeSolver petesPike){
-        if (petesPike.isGoal()) {
-            return petesPike;
-            
+        if(petesPike.petesPike.isProvablyUnsolvable()){
+            return null;
         }
-
-        Collection<PetesPikeSolver> successors = petesPike.getSuccessors();
-        for (PetesPikeSolver successor : successors) {
-            if (successor.isValid()) {
-                PetesPikeSolver sol = solve(successor);
-                if (sol != null) { 
-                    return sol;
-                }
-            }
-        }
-    
-        return null;
+        IterativeBacktracker<PetesPikeSolver> backtracker = new IterativeBacktracker<>(false, new TranspositionTable());
+        return backtracker.solve(petesPike);
     }
 
       /**
@@ -155,12 +219,159 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
      */
 
     public PetesPikeSolver solve(PetesPike petesPike, boolean debug){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
         PetesPikeSolver solver = new PetesPikeSolver(petesPike);
-        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(debug);
+        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(debug, new TranspositionTable());
         return backtracker.solve(solver);
         
     }
 
+    /**
+     * Solves the problem with a breadth-first search that never expands the same board twice.
+     * The returned solver holds a shortest list of moves that takes Pete to the mountain top.
+     * 
+     * @param petesPike the initial PetesPike instance
+     * @param debug a boolean flag to enable or disable debugging outputs
+     * @return the solved PetesPikeSolver instance with the fewest moves, null if there is no solution
+     */
+    public PetesPikeSolver solveShortest(PetesPike petesPike, boolean debug){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
+        PackedSolver solver = new PackedSolver(petesPike);
+        BreadthFirstSolver<PackedSolver> breadthFirstSolver = new BreadthFirstSolver<>(debug);
+        PackedSolver solution = breadthFirstSolver.solve(solver);
+        if(solution == null){
+            return null;
+        }
+        return replay(petesPike, solution.getMoves());
+    }
+
+    /**
+     * Solves the problem with iterative-deepening A*, which finds a shortest solution while
+     * only keeping the current path in memory. Use it on boards too large for {@link #solveShortest}.
+     * 
+     * @param petesPike the initial PetesPike instance
+     * @param maxDepth the longest solution to look for
+     * @return the solved PetesPikeSolver instance with the fewest moves, null if there is no solution within maxDepth moves
+     */
+    public PetesPikeSolver solveOptimal(PetesPike petesPike, int maxDepth){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
+        PackedBoard board = new PackedBoard(petesPike);
+        IterativeDeepeningSolver solver = new IterativeDeepeningSolver(board, maxDepth);
+        List<Move> solution = solver.solve(board.pack(petesPike));
+        if(solution == null){
+            return null;
+        }
+        return replay(petesPike, solution);
+    }
+
+    /**
+     * Solves the problem with a bidirectional search that grows forward from the board and backward
+     * from every goal board until the two meet, which keeps both searches about half as deep.
+     * 
+     * @param petesPike the initial PetesPike instance
+     * @return the solved PetesPikeSolver instance with the fewest moves, null if there is no solution
+     */
+    public PetesPikeSolver solveBidirectional(PetesPike petesPike){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
+        PackedBoard board = new PackedBoard(petesPike);
+        List<Move> solution = new BidirectionalSolver(board).solve(board.pack(petesPike));
+        if(solution == null){
+            return null;
+        }
+        return replay(petesPike, solution);
+    }
+
+    /**
+     * Solves the problem with a breadth-first search whose levels are expanded on all cores.
+     * Like {@link #solveShortest} it returns a shortest solution, and it is the fastest way to
+     * prove that a large puzzle has none.
+     * 
+     * @param petesPike the initial PetesPike instance
+     * @return the solved PetesPikeSolver instance with the fewest moves, null if there is no solution
+     */
+    public PetesPikeSolver solveShortestParallel(PetesPike petesPike){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
+        PackedBoard board = new PackedBoard(petesPike);
+        List<Move> solution = new ParallelBreadthFirstSolver(board).solve(board.pack(petesPike));
+        if(solution == null){
+            return null;
+        }
+        return replay(petesPike, solution);
+    }
+
+    /**
+     * Solves the problem with backtracking spread over all cores. Any solution may be returned,
+     * not necessarily the one {@link #solve(PetesPike, boolean)} finds.
+     * 
+     * @param petesPike the initial PetesPike instance
+     * @return the solved PetesPikeSolver instance if a solution is found, null otherwise
+     */
+    public PetesPikeSolver solveParallel(PetesPike petesPike){
+        if(petesPike.isProvablyUnsolvable()){
+            return null;
+        }
+        ParallelBacktracker<PackedSolver> backtracker = new ParallelBacktracker<>(PARALLEL_SPLIT_DEPTH, true);
+        PackedSolver solution = backtracker.solve(new PackedSolver(petesPike));
+        if(solution == null){
+            return null;
+        }
+        return replay(petesPike, solution.getMoves());
+    }
+
+    /**
+     * Plays a list of moves on a copy of a game, so solutions found on packed boards
+     * can be handed out as regular solvers.
+     * 
+     * @param petesPike the game the moves start from
+     * @param moves the moves to play
+     * @return a solver holding the resulting game and the moves
+     * @throws IllegalStateException if a move is rejected, which means the search that produced
+     *  the moves is broken
+     */
+    static PetesPikeSolver replay(PetesPike petesPike, List<Move> moves){
+        PetesPike pp = new PetesPike(petesPike);
+        try {
+            for(Move move : moves){
+                pp.makeMove(move);
+            }
+        } catch (PetesPikeException e) {
+            throw new IllegalStateException("A solution found by the search cannot be replayed.", e);
+        }
+        return new PetesPikeSolver(pp, moves);
+    }
+
+    /**
+     * Two solvers are equal when Pete and every goat stand on the same positions,
+     * regardless of the moves that led there.
+     * 
+     * @param obj the object to compare with this solver
+     * @return true if the other solver holds the same board state, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof PetesPikeSolver) {
+            PetesPikeSolver other = (PetesPikeSolver)obj;
+            return this.petesPike.getElement().equals(other.petesPike.getElement());
+        }else{
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return this.petesPike.getElement().hashCode();
+    }
+
 
     // toString for moves
     @Override
@@ -183,7 +394,7 @@ public class PetesPikeSolver implements Configuration<PetesPikeSolver>{
         PetesPikeSolver petesPikeSolver = new PetesPikeSolver(petesPike);
 
         // Implement BackTracker
-        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false);
+        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false, new TranspositionTable());
 
         // Save solution from BackTracker
         PetesPikeSolver solution = backtracker.solve(petesPikeSolver);
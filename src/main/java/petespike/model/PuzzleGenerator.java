@@ -0,0 +1,137 @@
+package petespike.model;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import backtracker.InPlaceBacktracker;
+import backtracker.SolveOptions;
+import backtracker.SolveStatus;
+import backtracker.TranspositionTable;
+
+/**
+ * Generates random Pete's Pike puzzles in the text format of the files in {@code data/}: a
+ * "rows cols" header followed by one line per row of {@code -}, {@code T}, {@code P} and goat
+ * digits. The mountain top, Pete and the goats are placed on distinct random cells. Puzzles
+ * can optionally be checked with the backtracker, retrying until one has a solution.
+ */
+public class PuzzleGenerator {
+    private final int rows;
+    private final int cols;
+    private final int goats;
+    private final Random random;
+
+    /**
+     * Constructs a generator for boards of a given size.
+     *
+     * @param rows the number of rows, at most {@link Occupancy#MAX_SIZE}
+     * @param cols the number of columns, at most {@link Occupancy#MAX_SIZE}
+     * @param goats the number of goats, from 0 to 9
+     * @param seed the seed of the random placement; equal seeds give equal puzzles
+     */
+    public PuzzleGenerator(int rows, int cols, int goats, long seed) {
+        if (rows < 1 || cols < 1 || rows > Occupancy.MAX_SIZE || cols > Occupancy.MAX_SIZE) {
+            throw new IllegalArgumentException("Boards must have 1 to " + Occupancy.MAX_SIZE + " rows and columns.");
+        }
+        if (goats < 0 || goats > 9) {
+            throw new IllegalArgumentException("There can be 0 to 9 goats.");
+        }
+        if (goats + 2 > rows * cols) {
+            throw new IllegalArgumentException("The board is too small for the mountain top, Pete and " + goats + " goats.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.goats = goats;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the next random puzzle, which may not have a solution.
+     *
+     * @return the puzzle in the file format
+     */
+    public String generate() {
+        char[] cells = new char[rows * cols];
+        Arrays.fill(cells, '-');
+        place(cells, 'T');
+        place(cells, 'P');
+        for (int goat = 0; goat < goats; goat++) {
+            place(cells, (char)('0' + goat));
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(rows).append(' ').append(cols);
+        for (int row = 0; row < rows; row++) {
+            text.append('\n').append(cells, row * cols, cols);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Generates random puzzles until the backtracker solves one within the given limits.
+     * Puzzles it proves unsolvable or cannot decide within the limits are skipped.
+     *
+     * @param options the limits of each check
+     * @param maxAttempts the most puzzles to try
+     * @return a puzzle with a solution in the file format, or null if none of the attempts had one
+     */
+    public String generateSolvable(SolveOptions options, int maxAttempts) {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            String puzzle = generate();
+            if (isSolvable(puzzle, options)) {
+                return puzzle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a puzzle with the backtracker.
+     */
+    private static boolean isSolvable(String puzzle, SolveOptions options) {
+        try {
+            PetesPike petesPike = new PetesPike(new StringReader(puzzle));
+            if (petesPike.isProvablyUnsolvable()) {
+                return false;
+            }
+            petesPike.setRelevancePruning(true);
+            InPlaceBacktracker backtracker = new InPlaceBacktracker(false, new TranspositionTable());
+            return backtracker.solve(petesPike, options).getStatus() == SolveStatus.SOLVED;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Puts a symbol on a random empty cell.
+     */
+    private void place(char[] cells, char symbol) {
+        int cell;
+        do {
+            cell = random.nextInt(cells.length);
+        } while (cells[cell] != '-');
+        cells[cell] = symbol;
+    }
+
+    /**
+     * Prints a random puzzle. Arguments: rows, columns, goats, seed and optionally "solvable"
+     * to keep generating until the backtracker solves one within a million nodes.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: PuzzleGenerator rows cols goats seed [solvable]");
+            return;
+        }
+        PuzzleGenerator generator = new PuzzleGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), Long.parseLong(args[3]));
+        if (args.length > 4 && args[4].equals("solvable")) {
+            String puzzle = generator.generateSolvable(SolveOptions.UNLIMITED.withMaxNodes(1_000_000), 1000);
+            System.out.println(puzzle == null ? "No solvable puzzle found." : puzzle);
+        } else {
+            System.out.println(generator.generate());
+        }
+    }
+}
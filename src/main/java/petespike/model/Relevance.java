@@ -0,0 +1,157 @@
+package petespike.model;
+
+import java.util.Arrays;
+
+/**
+ * Finds the pieces whose moves can change whether Pete reaches the mountain top.
+ *
+ * <p>The analysis first over-approximates the cells every piece can ever stand on. A piece
+ * only stops next to another piece, so from a row it can reach it can stop just before any
+ * cell of that row some other piece can reach, and likewise in its columns; this is repeated
+ * until nothing changes. A piece is then relevant if it is Pete, or if it can stand in a row
+ * or column a relevant piece can stand in, since only then can it stop that piece or be in its
+ * way. The moves of the other pieces never change where a relevant piece can go, so a search
+ * may skip them, and if the mountain top is not among Pete's cells no piece is relevant.</p>
+ *
+ * <p>Cells reachable from a board are also reachable from the board it was reached from, so
+ * a piece found irrelevant stays irrelevant for the rest of a search.</p>
+ */
+public class Relevance {
+    private final int rows;
+    private final int cols;
+    private final int mountainTop;
+    private final long[][] rowReach;
+    private final long[][] colReach;
+
+    /**
+     * Creates an analysis for a board.
+     *
+     * @param rows the number of rows, at most {@link Occupancy#MAX_SIZE}
+     * @param cols the number of columns, at most {@link Occupancy#MAX_SIZE}
+     * @param mountainTop the cell of the mountain top ({@code row * cols + col})
+     * @param pieces the number of piece indexes, Pete being piece 0
+     */
+    public Relevance(int rows, int cols, int mountainTop, int pieces) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mountainTop = mountainTop;
+        this.rowReach = new long[pieces][rows];
+        this.colReach = new long[pieces][cols];
+    }
+
+    /**
+     * Finds the relevant pieces of a board.
+     *
+     * @param cells the cell of each piece, or -1 for a piece index not on the board
+     * @return a mask with bit {@code i} set if piece {@code i} is relevant, or 0 if Pete can
+     *  never reach the mountain top
+     */
+    public int analyze(int[] cells) {
+        int present = 0;
+        for (int piece = 0; piece < cells.length; piece++) {
+            Arrays.fill(rowReach[piece], 0);
+            Arrays.fill(colReach[piece], 0);
+            if (cells[piece] >= 0) {
+                add(piece, cells[piece] / cols, cells[piece] % cols);
+                present |= 1 << piece;
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int piece = 0; piece < cells.length; piece++) {
+                if ((present & 1 << piece) != 0) {
+                    changed |= extend(piece, present, rowReach, colReach, rows, false);
+                    changed |= extend(piece, present, colReach, rowReach, cols, true);
+                }
+            }
+        }
+
+        if ((rowReach[0][mountainTop / cols] & 1L << mountainTop % cols) == 0) {
+            return 0;
+        }
+        int relevant = 1;
+        changed = true;
+        while (changed) {
+            changed = false;
+            for (int piece = 1; piece < cells.length; piece++) {
+                if ((present & ~relevant & 1 << piece) != 0 && affects(piece, relevant)) {
+                    relevant |= 1 << piece;
+                    changed = true;
+                }
+            }
+        }
+        return relevant;
+    }
+
+    /**
+     * Adds the stops a piece can make along its reachable lines of one orientation.
+     *
+     * @param lines the reach of each piece along the lines being extended
+     * @param across the same reach along the crossing lines, kept in step
+     * @param transposed whether the lines are columns
+     * @return true if the piece can reach a new cell
+     */
+    private boolean extend(int piece, int present, long[][] lines, long[][] across, int count,
+            boolean transposed) {
+        boolean changed = false;
+        for (int line = 0; line < count; line++) {
+            long reach = lines[piece][line];
+            if (reach == 0) {
+                continue;
+            }
+            long others = 0;
+            for (int other = 0; other < lines.length; other++) {
+                if (other != piece && (present & 1 << other) != 0) {
+                    others |= lines[other][line];
+                }
+            }
+            // sliding forward stops before a blocker at least two cells ahead of the lowest
+            // reachable cell, sliding back after one at least two cells behind the highest
+            int low = Long.numberOfTrailingZeros(reach);
+            int high = 63 - Long.numberOfLeadingZeros(reach);
+            long forward = low < 63 ? (others >>> 1) & (-1L << (low + 1)) : 0;
+            long back = (others << 1) & ((1L << high) - 1);
+            long added = (forward | back) & ~reach;
+            while (added != 0) {
+                int cell = Long.numberOfTrailingZeros(added);
+                added &= added - 1;
+                if (transposed) {
+                    add(piece, cell, line);
+                } else {
+                    add(piece, line, cell);
+                }
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether a piece can share a row or column with one of the relevant pieces.
+     */
+    private boolean affects(int piece, int relevant) {
+        for (int other = 0; other < rowReach.length; other++) {
+            if ((relevant & 1 << other) == 0) {
+                continue;
+            }
+            for (int row = 0; row < rows; row++) {
+                if (rowReach[piece][row] != 0 && rowReach[other][row] != 0) {
+                    return true;
+                }
+            }
+            for (int col = 0; col < cols; col++) {
+                if (colReach[piece][col] != 0 && colReach[other][col] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void add(int piece, int row, int col) {
+        rowReach[piece][row] |= 1L << col;
+        colReach[piece][col] |= 1L << row;
+    }
+}
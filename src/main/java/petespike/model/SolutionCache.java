@@ -0,0 +1,361 @@
+package petespike.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A persistent cache of solutions, stored in a memory-mapped file so a solve done by the CLI,
+ * the GUI or a batch run is remembered by all of them. Boards are keyed by a 64-bit hash of
+ * their {@link Symmetry canonical form}, so a mirrored, rotated or transposed board, or one
+ * with its goats relabeled, finds the solution of the board it is an image of. A solution is
+ * stored in the canonical board's frame as two bytes per move: the cell the moving piece
+ * stands on and the direction (where it stops follows from the board).
+ *
+ * <p>The file holds a fixed number of slots, so it never grows. Slots are grouped in buckets
+ * of {@value #WAYS}; when a bucket is full, its least recently used entry is replaced. Cached
+ * moves are replayed before they are returned, so a stale or damaged entry is a miss rather
+ * than a wrong answer.</p>
+ *
+ * <p>The cache is thread-safe, and several processes can share a file: every lookup and store
+ * holds an exclusive {@link FileChannel#lock() lock} on the whole file, and the clock that orders
+ * entries by use is kept in the file, so slot writes and use stamps of different processes never
+ * interleave. A lookup or store that cannot take the lock is a miss.</p>
+ */
+public class SolutionCache implements Closeable {
+    /**
+     * The system property holding the path of the default cache file, or "none" to turn the
+     * default cache off.
+     */
+    public static final String PATH_PROPERTY = "petespike.cache";
+
+    /**
+     * The number of solutions the default cache holds.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * The longest solution that fits in a slot.
+     */
+    public static final int MAX_MOVES = 54;
+
+    private static final int MAGIC = 0x50504332;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 128;
+    private static final int WAYS = 8;
+    private static final int KEY = 0;
+    private static final int STAMP = 8;
+    private static final int FLAGS = 16;
+    private static final int LENGTH = 17;
+    private static final int MOVES = 19;
+    private static final byte OPTIMAL = 1;
+
+    /*
+     * Serializes the caches of this process, since a JVM may not hold two locks on one file
+     */
+    private static final Object LOCK = new Object();
+
+    private static SolutionCache defaultCache;
+    private static boolean defaultOpened;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int buckets;
+
+    /**
+     * Opens a cache file, creating it if needed. A file made for another capacity, or not
+     * made by this class, is cleared.
+     *
+     * @param file the path of the cache file
+     * @param capacity the number of solutions to hold, rounded up to a multiple of {@value #WAYS}
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public SolutionCache(Path file, int capacity) throws IOException {
+        this.buckets = Math.max(1, (capacity + WAYS - 1) / WAYS);
+        long size = HEADER_SIZE + (long)buckets * WAYS * SLOT_SIZE;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        synchronized (LOCK) {
+            try (FileLock lock = channel.lock()) {
+                boolean valid = channel.size() == size;
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                if (!valid || buffer.getInt(0) != MAGIC || buffer.getInt(4) != buckets) {
+                    for (int offset = 0; offset < size; offset += 8) {
+                        buffer.putLong(offset, 0);
+                    }
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, buckets);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the cache shared by the CLI, the GUI and batch runs. Its file is named by the
+     * {@value #PATH_PROPERTY} system property and defaults to
+     * {@code .petespike/solutions.cache} in the user's home directory.
+     *
+     * @return the default cache, or null if it is turned off or its file cannot be opened
+     */
+    public static synchronized SolutionCache getDefault() {
+        if (!defaultOpened) {
+            defaultOpened = true;
+            String path = System.getProperty(PATH_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".petespike", "solutions.cache").toString());
+            if (!path.equals("none")) {
+                try {
+                    defaultCache = new SolutionCache(Paths.get(path), DEFAULT_CAPACITY);
+                } catch (IOException e) {
+                    System.out.println("Solution cache unavailable: " + e.getMessage());
+                }
+            }
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Hashes a board by its canonical form, so boards that are symmetric to each other or only
+     * differ by goat labels share a key.
+     *
+     * @param petesPike the board to hash
+     * @return a 64-bit key, never 0
+     */
+    public static long keyOf(PetesPike petesPike) {
+        return Symmetry.canonicalKey(petesPike);
+    }
+
+    /**
+     * Looks up a solution for the current state of a board.
+     *
+     * @param petesPike the board, which is left unchanged
+     * @param optimalOnly whether only solutions known to be shortest are wanted
+     * @return the moves of the cached solution, or null if there is none
+     */
+    public List<Move> get(PetesPike petesPike, boolean optimalOnly) {
+        long key = keyOf(petesPike);
+        synchronized (LOCK) {
+            try (FileLock lock = channel.lock()) {
+                return lookup(petesPike, key, optimalOnly);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Stores a solution for the current state of a board. An entry already cached for the
+     * board is only replaced by a shortest solution, or by a shorter one if neither is known to
+     * be shortest.
+     *
+     * @param petesPike the board the solution starts from, which is left unchanged
+     * @param moves the moves of the solution
+     * @param optimal whether the solution is known to be a shortest one
+     * @return true if the solution was stored, false if it is too long, not replayable or the
+     *  file cannot be locked
+     */
+    public boolean put(PetesPike petesPike, List<Move> moves, boolean optimal) {
+        if (moves.size() > MAX_MOVES) {
+            return false;
+        }
+        short[] encoded = encode(petesPike, moves);
+        if (encoded == null) {
+            return false;
+        }
+        long key = keyOf(petesPike);
+        synchronized (LOCK) {
+            try (FileLock lock = channel.lock()) {
+                store(key, encoded, optimal);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes pending changes to the file and closes it.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (LOCK) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Looks up a key while the file is locked.
+     */
+    private List<Move> lookup(PetesPike petesPike, long key, boolean optimalOnly) {
+        int slot = find(key);
+        if (slot < 0 || (optimalOnly && buffer.get(slot + FLAGS) != OPTIMAL)) {
+            return null;
+        }
+        List<Move> moves = decode(petesPike, slot);
+        if (moves == null) {
+            buffer.putLong(slot + KEY, 0);
+            return null;
+        }
+        touch(slot);
+        return moves;
+    }
+
+    /**
+     * Stores encoded moves under a key while the file is locked.
+     */
+    private void store(long key, short[] encoded, boolean optimal) {
+        int slot = find(key);
+        if (slot >= 0) {
+            boolean cachedOptimal = buffer.get(slot + FLAGS) == OPTIMAL;
+            if (cachedOptimal || (!optimal && buffer.getShort(slot + LENGTH) <= encoded.length)) {
+                touch(slot);
+                return;
+            }
+        } else {
+            slot = victim(key);
+        }
+        buffer.putLong(slot + KEY, key);
+        buffer.put(slot + FLAGS, optimal ? OPTIMAL : 0);
+        buffer.putShort(slot + LENGTH, (short)encoded.length);
+        for (int i = 0; i < encoded.length; i++) {
+            buffer.putShort(slot + MOVES + 2 * i, encoded[i]);
+        }
+        touch(slot);
+    }
+
+    /**
+     * Returns the offset of the slot holding a key, or -1.
+     */
+    private int find(long key) {
+        int first = firstSlot(key);
+        for (int way = 0; way < WAYS; way++) {
+            int slot = first + way * SLOT_SIZE;
+            if (buffer.getLong(slot + KEY) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset of the slot a new key goes into: an empty one, or else the least
+     * recently used one of its bucket.
+     */
+    private int victim(long key) {
+        int first = firstSlot(key);
+        int oldest = first;
+        for (int way = 0; way < WAYS; way++) {
+            int slot = first + way * SLOT_SIZE;
+            if (buffer.getLong(slot + KEY) == 0) {
+                return slot;
+            }
+            if (buffer.getLong(slot + STAMP) < buffer.getLong(oldest + STAMP)) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    private int firstSlot(long key) {
+        int bucket = (int)Long.remainderUnsigned(key, buckets);
+        return HEADER_SIZE + bucket * WAYS * SLOT_SIZE;
+    }
+
+    /**
+     * Marks a slot as the most recently used one, advancing the clock every process sharing
+     * the file reads.
+     */
+    private void touch(int slot) {
+        long clock = buffer.getLong(8) + 1;
+        buffer.putLong(slot + STAMP, clock);
+        buffer.putLong(8, clock);
+    }
+
+    /**
+     * Encodes each move as the cell of the moving piece and the direction, both mapped to the
+     * canonical board.
+     *
+     * @return the encoded moves, or null if a move is not possible
+     */
+    private static short[] encode(PetesPike petesPike, List<Move> moves) {
+        PetesPike copy = new PetesPike(petesPike);
+        int transform = Symmetry.canonicalTransform(copy);
+        int[] buffer = new int[copy.getMaxMoves()];
+        short[] encoded = new short[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            int count = copy.generateMoves(buffer);
+            int found = -1;
+            for (int j = 0; j < count && found < 0; j++) {
+                if (copy.toMove(buffer[j]).equals(moves.get(i))) {
+                    found = buffer[j];
+                }
+            }
+            if (found < 0) {
+                return null;
+            }
+            encoded[i] = canonicalMove(copy, transform, copy.toMove(found));
+            copy.applyMove(found);
+        }
+        return encoded;
+    }
+
+    /**
+     * Replays the moves of a slot on a copy of the board, mapping them back from the canonical
+     * board.
+     *
+     * @return the moves, or null if they are not possible or do not reach the goal
+     */
+    private List<Move> decode(PetesPike petesPike, int slot) {
+        int length = buffer.getShort(slot + LENGTH);
+        if (length < 0 || length > MAX_MOVES) {
+            return null;
+        }
+        PetesPike copy = new PetesPike(petesPike);
+        int transform = Symmetry.canonicalTransform(copy);
+        int[] generated = new int[copy.getMaxMoves()];
+        List<Move> moves = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            short encoded = buffer.getShort(slot + MOVES + 2 * i);
+            int count = copy.generateMoves(generated);
+            int found = -1;
+            for (int j = 0; j < count && found < 0; j++) {
+                if (canonicalMove(copy, transform, copy.toMove(generated[j])) == encoded) {
+                    found = generated[j];
+                }
+            }
+            if (found < 0) {
+                return null;
+            }
+            moves.add(copy.toMove(found));
+            copy.applyMove(found);
+        }
+        return copy.isGoal() ? moves : null;
+    }
+
+    /**
+     * Encodes a move of a board as the transformed cell of the moving piece and the
+     * transformed direction.
+     */
+    private static short canonicalMove(PetesPike petesPike, int transform, Move move) {
+        Position position = move.getPosition();
+        int cell = position.getRow() * petesPike.getCol() + position.getCol();
+        int mapped = Symmetry.mapCell(transform, petesPike.getRows(), petesPike.getCol(), cell);
+        return (short)(mapped << 2 | Symmetry.mapDirection(transform, move.getDirection()).ordinal());
+    }
+}
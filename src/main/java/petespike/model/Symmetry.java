@@ -0,0 +1,176 @@
+package petespike.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The eight symmetries of a rectangular board (the dihedral group: mirrors, rotations and
+ * the transpose) and the canonical form of a Pete's Pike board under them. A board and its
+ * image under a symmetry have the same solutions once moves and directions are mapped, and so
+ * do two boards that only differ by goat labels, since goats are interchangeable.
+ *
+ * A transform is a number from 0 to 7: bit 1 mirrors the rows (top to bottom), bit 2 mirrors
+ * the columns (left to right) and bit 4 then transposes the board, which swaps its number of
+ * rows and columns. Transform 0 is the identity.
+ */
+public final class Symmetry {
+    /**
+     * The number of transforms.
+     */
+    public static final int COUNT = 8;
+
+    private static final int MIRROR_ROWS = 1;
+    private static final int MIRROR_COLS = 2;
+    private static final int TRANSPOSE = 4;
+
+    private Symmetry() {
+    }
+
+    /**
+     * Checks whether a transform swaps the number of rows and columns.
+     *
+     * @param transform the transform
+     * @return true if the transform transposes the board
+     */
+    public static boolean swapsDimensions(int transform) {
+        return (transform & TRANSPOSE) != 0;
+    }
+
+    /**
+     * Maps a cell to the transformed board.
+     *
+     * @param transform the transform
+     * @param rows the number of rows before the transform
+     * @param cols the number of columns before the transform
+     * @param cell the cell index ({@code row * cols + col})
+     * @return the cell index on the transformed board
+     */
+    public static int mapCell(int transform, int rows, int cols, int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        if ((transform & MIRROR_ROWS) != 0) {
+            row = rows - 1 - row;
+        }
+        if ((transform & MIRROR_COLS) != 0) {
+            col = cols - 1 - col;
+        }
+        // the transposed board has as many columns as this one has rows
+        return (transform & TRANSPOSE) != 0 ? col * rows + row : row * cols + col;
+    }
+
+    /**
+     * Maps a direction to the transformed board.
+     *
+     * @param transform the transform
+     * @param direction the direction before the transform
+     * @return the direction on the transformed board
+     */
+    public static Direction mapDirection(int transform, Direction direction) {
+        if ((transform & MIRROR_ROWS) != 0 && (direction == Direction.UP || direction == Direction.DOWN)) {
+            direction = PackedBoard.opposite(direction);
+        }
+        if ((transform & MIRROR_COLS) != 0 && (direction == Direction.LEFT || direction == Direction.RIGHT)) {
+            direction = PackedBoard.opposite(direction);
+        }
+        if ((transform & TRANSPOSE) != 0) {
+            switch (direction) {
+                case UP: return Direction.LEFT;
+                case DOWN: return Direction.RIGHT;
+                case LEFT: return Direction.UP;
+                default: return Direction.DOWN;
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * Maps every cell of a board to the transformed board.
+     *
+     * @param transform the transform
+     * @param rows the number of rows before the transform
+     * @param cols the number of columns before the transform
+     * @return the transformed cell of each cell
+     */
+    public static int[] cellMap(int transform, int rows, int cols) {
+        int[] map = new int[rows * cols];
+        for (int cell = 0; cell < map.length; cell++) {
+            map[cell] = mapCell(transform, rows, cols, cell);
+        }
+        return map;
+    }
+
+    /**
+     * Finds the transform that takes a board to its canonical form: the smallest of its eight
+     * images when each is written as its size, the mountain top, Pete and the sorted goat cells.
+     *
+     * @param petesPike the board, in its current state
+     * @return the transform giving the canonical form
+     */
+    public static int canonicalTransform(PetesPike petesPike) {
+        int best = 0;
+        int[] bestForm = form(petesPike, 0);
+        for (int transform = 1; transform < COUNT; transform++) {
+            int[] form = form(petesPike, transform);
+            if (Arrays.compare(form, bestForm) < 0) {
+                best = transform;
+                bestForm = form;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Hashes the canonical form of a board. Boards that are mirrors, rotations or transposes
+     * of each other, or that only differ by goat labels, get the same key.
+     *
+     * @param petesPike the board, in its current state
+     * @return a 64-bit key, never 0
+     */
+    public static long canonicalKey(PetesPike petesPike) {
+        long hash = 0;
+        for (int value : form(petesPike, canonicalTransform(petesPike))) {
+            hash = mix(hash ^ value) + 0x9E3779B97F4A7C15L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Writes a transformed board as its size, the mountain top, Pete and the sorted goat cells.
+     */
+    private static int[] form(PetesPike petesPike, int transform) {
+        int rows = petesPike.getRows();
+        int cols = petesPike.getCol();
+        Map<Character, Position> elements = petesPike.getElement();
+        int[] form = new int[3 + elements.size()];
+        form[0] = swapsDimensions(transform) ? cols : rows;
+        form[1] = swapsDimensions(transform) ? rows : cols;
+        form[2] = mapCell(transform, rows, cols, toCell(petesPike.getMountainTop(), cols));
+        int goat = 4;
+        for (Map.Entry<Character, Position> piece : elements.entrySet()) {
+            int cell = mapCell(transform, rows, cols, toCell(piece.getValue(), cols));
+            if (piece.getKey() == petesPike.PETE_SYMBOL) {
+                form[3] = cell;
+            } else {
+                form[goat++] = cell;
+            }
+        }
+        Arrays.sort(form, 4, form.length);
+        return form;
+    }
+
+    private static int toCell(Position position, int cols) {
+        return position.getRow() * cols + position.getCol();
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,237 @@
+package petespike.view;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import backtracker.InPlaceBacktracker;
+import backtracker.SolveOptions;
+import backtracker.SolveResult;
+import backtracker.SolveStatus;
+import backtracker.TranspositionTable;
+import petespike.model.PetesPike;
+
+/**
+ * Solves every puzzle in a directory, or every file matching a glob, without any interaction.
+ * Puzzles are solved concurrently on a pool of workers, and one line per puzzle is printed as
+ * soon as it is done, as CSV or JSON Lines:
+ *
+ * <pre>
+ * PetesPikeBatch &lt;directory|glob&gt; [--threads n] [--format csv|jsonl] [--timeout millis] [--max-nodes n]
+ *     [--relevance on|off]
+ * </pre>
+ *
+ * Relevance pruning, which skips goats that can never affect Pete's route, is on by default.
+ *
+ * Each line holds the file, the status (a {@link backtracker.SolveStatus}, or ERROR if the file
+ * could not be read or the search ran out of stack or memory), the number of moves of the
+ * solution, the nodes explored and the time taken.
+ * Puzzles the static reachability check proves unsolvable are reported without a search.
+ */
+public class PetesPikeBatch {
+    /**
+     * Output format printing a header and comma-separated lines.
+     */
+    public static final String CSV = "csv";
+
+    /**
+     * Output format printing one JSON object per line.
+     */
+    public static final String JSONL = "jsonl";
+
+    private final int threads;
+    private final String format;
+    private final SolveOptions options;
+    private final boolean relevance;
+    private final PrintStream out;
+
+    /**
+     * Constructs a batch solver.
+     *
+     * @param threads the number of puzzles solved at once
+     * @param format {@link #CSV} or {@link #JSONL}
+     * @param options the limits of each solve
+     * @param relevance whether to skip pieces that cannot affect Pete's route
+     * @param out where the result lines are printed
+     */
+    public PetesPikeBatch(int threads, String format, SolveOptions options, boolean relevance, PrintStream out) {
+        if (!format.equals(CSV) && !format.equals(JSONL)) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        this.threads = threads;
+        this.format = format;
+        this.options = options;
+        this.relevance = relevance;
+        this.out = out;
+    }
+
+    /**
+     * Lists the puzzle files of a directory, or the files matching a glob such as
+     * {@code data/petes_pike_5_*.txt}. Only the file name part of the glob may hold wildcards.
+     *
+     * @param pattern a directory or a glob
+     * @return the matching files, sorted by name
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Path> findPuzzles(String pattern) throws IOException {
+        Path path = Paths.get(pattern);
+        Path directory;
+        String glob;
+        if (Files.isDirectory(path)) {
+            directory = path;
+            glob = "*.txt";
+        } else {
+            directory = path.getParent() == null ? Paths.get(".") : path.getParent();
+            glob = path.getFileName().toString();
+        }
+        List<Path> puzzles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    puzzles.add(file);
+                }
+            }
+        }
+        puzzles.sort(null);
+        return puzzles;
+    }
+
+    /**
+     * Solves a list of puzzles, printing each result as it completes. Results therefore come
+     * in the order the puzzles finish, not the order they were given in.
+     *
+     * @param puzzles the puzzle files
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public void run(List<Path> puzzles) throws InterruptedException {
+        if (format.equals(CSV)) {
+            out.println("file,status,moves,nodes,millis");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (Path puzzle : puzzles) {
+                pool.execute(() -> print(solve(puzzle)));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The outcome of one puzzle.
+     */
+    private record Result(Path file, String status, int moves, long nodes, long millis) {
+    }
+
+    /**
+     * Loads and solves one puzzle.
+     */
+    private Result solve(Path puzzle) {
+        long start = System.nanoTime();
+        try {
+            PetesPike petesPike = new PetesPike(puzzle.toString());
+            if (petesPike.isProvablyUnsolvable()) {
+                return new Result(puzzle, SolveStatus.UNSOLVABLE.name(), -1, 0, millisSince(start));
+            }
+            petesPike.setRelevancePruning(relevance);
+            InPlaceBacktracker backtracker = new InPlaceBacktracker(false, new TranspositionTable());
+            SolveResult<int[]> result = backtracker.solve(petesPike, options);
+            int moves = result.getSolution() == null ? -1 : result.getSolution().length;
+            return new Result(puzzle, result.getStatus().name(), moves, result.getNodes(), millisSince(start));
+        } catch (IOException | RuntimeException e) {
+            // empty or malformed files fail while loading
+            return new Result(puzzle, "ERROR", -1, 0, millisSince(start));
+        } catch (StackOverflowError | OutOfMemoryError e) {
+            // the recursive search can go too deep, or its table can outgrow the heap, on one
+            // puzzle; the others still get their lines
+            return new Result(puzzle, "ERROR", -1, 0, millisSince(start));
+        }
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Prints one result line; lines from different workers never interleave.
+     */
+    private void print(Result result) {
+        String moves = result.moves() < 0 ? "" : Integer.toString(result.moves());
+        String line;
+        if (format.equals(CSV)) {
+            line = csv(result.file().toString()) + "," + result.status() + "," + moves + ","
+                + result.nodes() + "," + result.millis();
+        } else {
+            line = "{\"file\":" + json(result.file().toString()) + ",\"status\":\"" + result.status()
+                + "\",\"moves\":" + (moves.isEmpty() ? "null" : moves) + ",\"nodes\":" + result.nodes()
+                + ",\"millis\":" + result.millis() + "}";
+        }
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String json(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Runs a batch from the command line.
+     *
+     * @param args a directory or glob, followed by the options
+     * @throws IOException if the puzzles cannot be listed
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: PetesPikeBatch <directory|glob> [--threads n] [--format csv|jsonl] "
+                + "[--timeout millis] [--max-nodes n] [--relevance on|off]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = CSV;
+        SolveOptions options = SolveOptions.UNLIMITED;
+        boolean relevance = true;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--format":
+                    format = args[i + 1];
+                    break;
+                case "--timeout":
+                    options = options.withTimeLimit(Duration.ofMillis(Long.parseLong(args[i + 1])));
+                    break;
+                case "--max-nodes":
+                    options = options.withMaxNodes(Long.parseLong(args[i + 1]));
+                    break;
+                case "--relevance":
+                    relevance = args[i + 1].equals("on");
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        new PetesPikeBatch(threads, format, options, relevance, System.out).run(findPuzzles(args[0]));
+    }
+}
@@ -2,6 +2,7 @@ package petespike.view;
 import java.io.IOException;
 import java.util.Scanner;
 
+import petespike.model.HintService;
 import petespike.model.Move;
 import petespike.model.PetesPike;
 import petespike.model.PetesPikeException;
@@ -116,6 +117,7 @@ public class PetesPikeCLI {
      */
     public void playPetesPike(PetesPike petepike) throws PetesPikeException {
         boolean start = true;
+        HintService hints = new HintService(petepike); // Starts finding a solution while the player thinks
         petepike.printBoard();
         while (start) {
             
@@ -139,11 +141,12 @@ public class PetesPikeCLI {
                         break;
                     case MOVE:
                         handleMove(petepike, tokens); // Handle movement command
+                        hints.update();
                         petepike.printBoard();
                         break;
                     case RESET:
                         petepike.reset(petepike); // Reset the game to its initial state
-                        
+                        hints.update();
                         petepike.printBoard(); 
                         break;
                     case NEW:
@@ -157,7 +160,8 @@ public class PetesPikeCLI {
                         System.out.println();
                         break;
                     case HINT:
-                        System.out.println(petepike.getPossibleMoves()); // Show a possible valid move
+                        Move hint = hints.getHint(); // Show the next move of a shortest solution
+                        System.out.println(hint == null ? "No moves lead to the mountain top from here." : hint);
                         break;
                     default:
                         System.out.println("Invalid command. Type 'help' for a list of commands." + '\n');
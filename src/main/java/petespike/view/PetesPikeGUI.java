@@ -2,11 +2,13 @@ package petespike.view;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -30,10 +32,19 @@ import petespike.model.PetesPikeException;
 import petespike.model.PetesPikeObserver;
 import petespike.model.PetesPikeSolver;
 import petespike.model.Position;
+import petespike.model.HintService;
+import petespike.model.SolutionCache;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import backtracker.Backtracker;
+import backtracker.CancellationToken;
+import backtracker.SolveOptions;
+import backtracker.SolveResult;
+import backtracker.SolveStatus;
+import backtracker.TranspositionTable;
 
 
 public class PetesPikeGUI extends Application implements PetesPikeObserver {
@@ -60,13 +71,16 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
     private static final Image UP_ARROW = new Image(PATH + "data/images/up.png");
     private static final Image DOWN_ARROW = new Image(PATH + "data/images/down.png");
     private static final Image BACKGROUND = new Image( "file:data/images/background.jpg");
+    private static final Duration SOLVE_REPORT_INTERVAL = Duration.ofMillis(100);
 
 
     
     // Initiaize varibles 
     private Position tempP;
     private PetesPike petesPike;
+    private HintService hints;
     // private Button[][] buttons;
+    private ImageView[][] cells;
     // private Label statusLabel;
     private Label hint;
     // private TextField text;
@@ -81,6 +95,13 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
     private Button down;
     private Button hintButton;
     private Button solveButton;
+    private Button cancelButton;
+    private ProgressIndicator solveProgress;
+    private Label solveNodes;
+    private Task<List<Move>> solving;
+    private CancellationToken solveToken;
+    private Thread playing;
+    private CompletableFuture<Move> hinting;
 
 
 
@@ -96,7 +117,12 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
     @Override
     public void boardChanged(Position from , Direction to) {
         try {
+            char symbol = petesPike.getBoard(from.getRow(), from.getCol());
             petesPike.makeMove(new Move(from , to));
+            // only the cell the piece left and the cell it stopped on change
+            paintCell(from.getRow(), from.getCol());
+            Position destination = petesPike.getElement().get(symbol);
+            paintCell(destination.getRow(), destination.getCol());
             
             statusMessage.setText("Great Move!");
 
@@ -125,48 +151,200 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
 
             
         }
-        boardUpdate();
+        if(hinting != null) {
+            // the hint being looked for is for the board before this move
+            this.hinting = null;
+            hint.setText("");
+        }
+        hints().update();
+    }
+
+    /**
+     * Returns the hint service of the current puzzle, starting a new one and closing the old
+     * one when a new puzzle has been loaded.
+     */
+    private HintService hints() {
+        if (hints == null || hints.getPetesPike() != petesPike) {
+            if (hints != null) {
+                // its searches are for a puzzle that is no longer shown
+                hints.close();
+            }
+            hints = new HintService(petesPike);
+        }
+        return hints;
     }
 
     /**
      * Attempts to solve the game using a backtracking algorithm.
-     * This method starts a new thread to animate each move of the solution.
+     * The search runs on a background thread, on a copy of the board, while a progress
+     * indicator shows how many configurations it has explored and the cancel button can stop
+     * it. When a solution is ready, a new thread animates each of its moves, and the cancel
+     * button stops that playback too.
      */
     private void solve() {
-        PetesPikeSolver pps = new PetesPikeSolver(petesPike);
-        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false);
-        PetesPikeSolver solution = backtracker.solve(pps);
-        //statusMessage.setText("Solved!");
-        if(solution != null) {
-            List<Move> ppSolved = solution.getMoves();
-
-
-
-            new Thread(() -> {
-                // for each move
-                for(Move move: ppSolved){
-                     Platform.runLater(() -> {
-                         // make move
-                         boardChanged(move.getPosition(), move.getDirection());
-                         boardUpdate();
-                     });
-                     try {
-                        Thread.sleep(250);
-                    } catch (InterruptedException e) {
-                        // TODO Auto-generated catch block
-                        e.printStackTrace();
-                    }
+        PetesPike copy = new PetesPike(petesPike);
+        CancellationToken token = new CancellationToken();
+        Task<List<Move>> task = new Task<>() {
+            @Override
+            protected List<Move> call() {
+                SolutionCache cache = SolutionCache.getDefault();
+                List<Move> ppSolved = cache == null ? null : cache.get(copy, false);
+                if(ppSolved != null || copy.isProvablyUnsolvable()) {
+                    return ppSolved;
+                }
+                SolveOptions options = SolveOptions.UNLIMITED.withCancellationToken(token)
+                    .withListener(statistics -> updateMessage("Searched " + statistics.getNodes() + " nodes"),
+                        SOLVE_REPORT_INTERVAL);
+                SolveResult<PetesPikeSolver> result = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                    .solve(new PetesPikeSolver(copy), options);
+                if(result.getStatus() != SolveStatus.SOLVED) {
+                    return null;
+                }
+                ppSolved = result.getSolution().getMoves();
+                if(cache != null) {
+                    cache.put(copy, ppSolved, false);
+                }
+                return ppSolved;
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if(!solveFinished(task)) {
+                // cancelled after the search ended but before this event arrived
+                return;
+            }
+            if(task.getValue() != null) {
+                play(task.getValue());
+                statusMessage.setText("Solved!");
+            } else {
+                statusMessage.setText("No solution...");
+            }
+        });
+        task.setOnFailed(e -> {
+            if(solveFinished(task)) {
+                statusMessage.setText("Solve failed: " + task.getException().getMessage());
+            }
+        });
+
+        this.solving = task;
+        this.solveToken = token;
+        setPlayable(false);
+        solveProgress.setVisible(true);
+        solveNodes.textProperty().bind(task.messageProperty());
+        cancelButton.setDisable(false);
+        statusMessage.setText("Solving...");
+
+        Thread thread = new Thread(task, "petespike-solver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the running search or the playback of its solution, if any, and gives the controls
+     * back to the player. The result of the search, should it still arrive, is dropped, and so
+     * are the moves of the playback that have not been made yet.
+     */
+    private void cancelSolve() {
+        if(solving != null) {
+            Task<List<Move>> task = solving;
+            solveToken.cancel();
+            task.cancel();
+            // a search that already ended is no longer current, so its pending event is ignored
+            solveFinished(task);
+        }
+        if(playing != null) {
+            Thread player = playing;
+            player.interrupt();
+            // moves the player already posted are no longer current, so they are ignored
+            playFinished(player);
+        }
+    }
+
+    /**
+     * Hides the progress of a search that has ended and gives the controls back to the player.
+     *
+     * @param task The search that ended.
+     * @return true if the search was still the current one; false if it was cancelled or
+     *  replaced, and its outcome must be dropped.
+     */
+    private boolean solveFinished(Task<List<Move>> task) {
+        if(task != solving) {
+            return false;
+        }
+        this.solving = null;
+        this.solveToken = null;
+        solveNodes.textProperty().unbind();
+        solveNodes.setText("");
+        solveProgress.setVisible(false);
+        cancelButton.setDisable(true);
+        setPlayable(true);
+        return true;
+    }
+
+    /**
+     * Enables or disables the board, the arrows, and the hint and solve buttons.
+     *
+     * @param playable true to let the player move; false to lock the board.
+     */
+    private void setPlayable(boolean playable) {
+        board.setDisable(!playable);
+        left.setDisable(!playable);
+        right.setDisable(!playable);
+        up.setDisable(!playable);
+        down.setDisable(!playable);
+        hintButton.setDisable(!playable);
+        solveButton.setDisable(!playable);
+    }
+
+    /**
+     * Starts a new thread to animate each move of a solution. The board stays locked until the
+     * last move has been made, and the cancel button stops the playback.
+     *
+     * @param moves The moves of the solution.
+     */
+    private void play(List<Move> moves) {
+        Thread player = new Thread(() -> {
+            Thread self = Thread.currentThread();
+            // for each move
+            for(Move move: moves){
+                Platform.runLater(() -> {
+                    // make move, unless the playback was stopped since
+                    if(playing == self) {
+                        boardChanged(move.getPosition(), move.getDirection());
                     }
-                        
-                       // sleep small amount time (~250ms)
-       
-            }).start();
-            
-            statusMessage.setText("Solved!");
-        } else {
-            statusMessage.setText("No solution...");
+                });
+                // sleep small amount time (~250ms)
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    // stopped by cancelSolve, which already gave the controls back
+                    return;
+                }
+            }
+            Platform.runLater(() -> playFinished(self));
+        }, "petespike-player");
+        player.setDaemon(true);
+
+        this.playing = player;
+        setPlayable(false);
+        cancelButton.setDisable(false);
+        player.start();
+    }
+
+    /**
+     * Gives the controls back to the player once the playback of a solution has ended. The
+     * board stays locked if the playback won the game.
+     *
+     * @param player The thread of the playback that ended.
+     */
+    private void playFinished(Thread player) {
+        if(player != playing) {
+            return;
         }
+        this.playing = null;
+        cancelButton.setDisable(true);
+        setPlayable(!petesPike.getGameState().equals(GameState.WON));
     }
+
     @Override
     public void start(Stage primaryStage) throws Exception {
         this.board = new GridPane();
@@ -177,6 +355,7 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         // Turn back on if you want to use enter to go through a new file instead of new puzzle
 
         file.setOnAction(e -> {
+            cancelSolve();
             // Update PetesPike instance or create a new one based on the new file
             try {
 
@@ -190,8 +369,6 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
             this.cols = this.petesPike.getCol();
             this.rows = this.petesPike.getRows();
 
-            board.getChildren().clear(); 
-            
             boardUpdate();
             
         });
@@ -199,15 +376,12 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         this.petesPike = new PetesPike(file.getText());
         this.cols = this.petesPike.getCol();
         this.rows = this.petesPike.getRows();
+        hints().update();
         // System.out.println(rows);
 
         GridPane grid = new GridPane();
         
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                board.add(makeButton(row, col), col, row);
-            }
-        }
+        buildBoard();
         
         BorderPane.setAlignment(board, Pos.CENTER);
         // Set the GridPane as the center node of the BorderPane
@@ -296,6 +470,7 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         file.setFont(fileFont);
         Button newPuzzle = makeNewPuzzleButton("New Puzzle");
         newPuzzle.setOnAction(e -> {
+            cancelSolve();
             // Update PetesPike instance or create a new one based on the new file
             try {
                 Font resetMessageFont = new Font ("Courier New", 24);
@@ -312,7 +487,6 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
                 hintButton.setDisable(false);
                 solveButton.setDisable(false);
                 this.petesPike = new PetesPike(file.getText());
-                boardUpdate();
 
             } catch (IOException ioe) {
                 System.out.println("The file is not available " + ioe.getMessage());
@@ -323,7 +497,6 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
             this.cols = this.petesPike.getCol();
             this.rows = this.petesPike.getRows();
 
-            board.getChildren().clear(); 
             boardUpdate();
         });
         
@@ -376,7 +549,7 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
 
     /**
      * Creates and configures a button for each cell on the game board.
-     * The button's appearance and behavior are set based on the game state.
+     * The button's image is kept in the cell matrix, so later moves only repaint it.
      *
      * @param row The row index of the button in the grid.
      * @param col The column index of the button in the grid.
@@ -388,43 +561,8 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         squareView.setFitWidth(60);
         Button button = new Button("",squareView);
         button.setPrefSize(60, 60);
-        char c = petesPike.getBoard(row, col);
-        if(c== 'T'){
-            ImageView image = new ImageView(MOUTAIN_TOP);
-            // squareView.setBackground(image);
-            image.setFitWidth(60); 
-            image.setFitHeight(60);
-            button.setGraphic(image);
-            
-        }    
-        else if(petesPike.getElement().containsKey(c)){
-            
-            ImageView image;
-            if(c== 'P'){
-                image = new ImageView(PETE);
-            } else if(c== '0'){
-                image = new ImageView(BLUE_GOAT);
-            } else if(c== '1'){
-                image = new ImageView(ORANGE_GOAT);
-            } else if(c== '2'){
-                image = new ImageView(YELLO_GOAT);
-            } else if(c== '3'){
-                image = new ImageView(GREEN_GOAT);
-            } else if(c== '4'){
-                image = new ImageView(GOAT4);
-            } else if(c== '5'){
-                image = new ImageView(GOAT5);
-            } else if(c== '6'){
-                image = new ImageView(GOAT6);
-            } else if(c== '7'){
-                image = new ImageView(GOAT7);
-            }else{
-                image = new ImageView(GOAT8);
-            }
-            image.setFitWidth(60); 
-            image.setFitHeight(60);
-            button.setGraphic(image);
-        }
+        this.cells[row][col] = squareView;
+        paintCell(row, col);
         button.setPadding(new Insets(0));
         button.setOnAction(e->{
             // button.setBackground(new BackgroundImage(BACKGROUND, BackgroundRepeat.REPEAT, BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER, null));
@@ -459,9 +597,11 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         button.setMaxSize(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
 
         button.setOnAction(e -> {
+            cancelSolve();
             Font resetMessageFont = new Font ("Courier New", 24);
             statusMessage.setFont(resetMessageFont);
             this.petesPike.reset(petesPike);
+            hints().update();
             statusMessage.setText("New Game");
             this.hint.setText("");
             statusMessage.setStyle("-fx-text-fill: rgb(50, 255, 0);");
@@ -497,19 +637,71 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
 
      /**
      * Updates the board view to reflect the current state of the game.
-     * This method clears the existing board view and repopulates it based on the current game state.
+     * Every cell is repainted in place; the cells are only rebuilt when the size of the board changes.
      */
     public void boardUpdate(){
+        this.hinting = null;
+        if(cells == null || cells.length != rows || cells[0].length != cols){
+            buildBoard();
+        } else {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    paintCell(row, col);
+                }
+            }
+        }
         
-        board.getChildren().clear(); 
-        // Repopulate the board
+        move.setText("Move: " + petesPike.getMoveCount());
+    }
+
+    /**
+     * Clears the board view and creates a button for each cell of the current board.
+     */
+    private void buildBoard(){
+        board.getChildren().clear();
+        this.cells = new ImageView[rows][cols];
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
                 board.add(makeButton(row, col), col, row);
             }
         }
-        
-        move.setText("Move: " + petesPike.getMoveCount());
+    }
+
+    /**
+     * Shows the piece, the mountain top or nothing in a cell, depending on what the board holds there.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    private void paintCell(int row, int col){
+        char c = petesPike.getBoard(row, col);
+        Image image;
+        if(c== 'T'){
+            image = MOUTAIN_TOP;
+        } else if(c== 'P'){
+            image = PETE;
+        } else if(c== '0'){
+            image = BLUE_GOAT;
+        } else if(c== '1'){
+            image = ORANGE_GOAT;
+        } else if(c== '2'){
+            image = YELLO_GOAT;
+        } else if(c== '3'){
+            image = GREEN_GOAT;
+        } else if(c== '4'){
+            image = GOAT4;
+        } else if(c== '5'){
+            image = GOAT5;
+        } else if(c== '6'){
+            image = GOAT6;
+        } else if(c== '7'){
+            image = GOAT7;
+        } else if(petesPike.getElement().containsKey(c)){
+            image = GOAT8;
+        } else {
+            image = BLANK;
+        }
+        cells[row][col].setImage(image);
     }
 
 
@@ -532,11 +724,12 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
 
 
     /**
-     * Creates a layout containing a hint button, label for hints, and a solve button.
-     * This method sets up the hint mechanism and the button to initiate solving the puzzle.
+     * Creates a layout containing a hint button, label for hints, a solve button, the progress
+     * of a running search and a button to cancel it.
+     * This method sets up the hint mechanism and the buttons to start and stop solving the puzzle.
      *
      * @param text The text to display on the hint button.
-     * @return A VBox containing the hint button and label, and solve button.
+     * @return A VBox containing the hint button and label, and the solve controls.
      */
     
     private VBox makeHintButton(String text) {
@@ -563,6 +756,21 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
             solve();
         });
 
+        this.cancelButton = new Button("Cancel");
+        cancelButton.setPadding(new Insets(10));
+        cancelButton.setMaxSize(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> {
+            cancelSolve();
+            statusMessage.setText("Solve cancelled");
+        });
+
+        this.solveProgress = new ProgressIndicator();
+        solveProgress.setVisible(false);
+        this.solveNodes = new Label();
+        solveNodes.setAlignment(Pos.CENTER);
+        solveNodes.setMaxWidth(Double.POSITIVE_INFINITY);
+
         if(this.petesPike.getGameState().equals(GameState.WON)){
             solveButton.setDisable(true);
             hintButton.setDisable(true);
@@ -570,22 +778,41 @@ public class PetesPikeGUI extends Application implements PetesPikeObserver {
         }
 
 
-        layout.getChildren().addAll(hintButton, hint, solveButton);
+        layout.getChildren().addAll(hintButton, hint, solveButton, solveProgress, solveNodes, cancelButton);
 
         hintButton.setOnAction(e -> {
-
- 
-            List<Move> hintList = petesPike.getPossibleMoves();
-
-            // Set the text of the hint label to display the hints
-            hint.setText(hintList.toString());
-            
-            
+            CompletableFuture<Move> next = hints().requestHint();
+            this.hinting = next;
+            if(!next.isDone()) {
+                hint.setText("Thinking...");
+            }
+            // on a known solution this runs right away; otherwise once the search has ended
+            next.whenComplete((move, error) -> Platform.runLater(() -> showHint(next, move, error)));
         });
     
         return layout; 
     }
 
+    /**
+     * Shows a hint in the hint label, unless the board has changed since it was asked for.
+     *
+     * @param next The hint that was asked for.
+     * @param move The move to make next, or null if there is none.
+     * @param error Why no hint could be found, or null.
+     */
+    private void showHint(CompletableFuture<Move> next, Move move, Throwable error) {
+        if(next != hinting) {
+            return;
+        }
+        this.hinting = null;
+        if(error != null) {
+            hint.setText("No hint");
+        } else {
+            // Set the text of the hint label to display the hint
+            hint.setText(move == null ? "No solution" : move.toString());
+        }
+    }
+
     private Label makeLabel(String msg){
         Label label = new Label(msg);
         label.setMaxWidth(Integer.MAX_VALUE);
@@ -0,0 +1,43 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import petespike.model.DistanceTable;
+import petespike.model.Move;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeException;
+
+public class DistanceTableTest {
+    @Test
+    public void bestMovesReachTheTop() throws IOException, PetesPikeException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_5_0.txt");
+        DistanceTable table = new DistanceTable(petesPike);
+
+        assertEquals(8, table.getDistance(petesPike));
+        assertEquals(557, table.getReachableStates());
+        assertEquals(9, table.getDistanceCounts().length);
+        for (int distance = 8; distance > 0; distance--) {
+            assertEquals(distance, table.getDistance(petesPike));
+            petesPike.makeMove(table.getBestMove(petesPike));
+        }
+        assertEquals(true, petesPike.isGoal());
+        assertNull(table.getBestMove(petesPike));
+    }
+
+    @Test
+    public void unsolvableAndTooLarge() throws IOException {
+        PetesPike unsolvable = new PetesPike("data/petes_pike_4_8_5_no_solution.txt");
+        DistanceTable table = new DistanceTable(unsolvable);
+        assertEquals(DistanceTable.UNSOLVABLE, table.getDistance(unsolvable));
+        assertEquals(0, table.getSolvableStates());
+
+        PetesPike large = new PetesPike("data/petes_pike_9_9_9_0.txt");
+        assertThrows(IllegalArgumentException.class, () -> new DistanceTable(large));
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import petespike.model.Direction;
+import petespike.model.HintService;
+import petespike.model.Move;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeException;
+import petespike.model.Position;
+
+public class HintServiceTest {
+    @Test
+    public void followHintsToTheTop() throws IOException, PetesPikeException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        HintService hints = new HintService(petesPike);
+
+        assertEquals(7, play(petesPike, hints));
+        assertEquals(true, petesPike.isGoal());
+        assertNull(hints.getHint());
+    }
+
+    @Test
+    public void deviationIsRecomputed() throws IOException, PetesPikeException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_7_4_0.txt");
+        HintService hints = new HintService(petesPike);
+        assertEquals(new Move(new Position(2, 5), Direction.UP), hints.getHint());
+
+        petesPike.makeMove(new Move(new Position(0, 5), Direction.DOWN));
+        hints.update();
+        assertEquals(4, play(petesPike, hints));
+        assertEquals(true, petesPike.isGoal());
+
+        PetesPike deadEnd = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        HintService deadEndHints = new HintService(deadEnd);
+        deadEnd.makeMove(new Move(new Position(3, 2), Direction.UP));
+        deadEndHints.update();
+        assertNull(deadEndHints.getHint());
+    }
+
+    @Test
+    public void requestHintDoesNotWait() throws Exception {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_7_4_0.txt");
+        HintService hints = new HintService(petesPike);
+        CompletableFuture<Move> first = hints.requestHint();
+        assertEquals(new Move(new Position(2, 5), Direction.UP), first.get());
+        assertEquals(true, hints.requestHint().isDone());
+
+        hints.close();
+        assertEquals(true, hints.requestHint().isCancelled());
+    }
+
+    private static int play(PetesPike petesPike, HintService hints) throws PetesPikeException {
+        int moves = 0;
+        for (Move hint = hints.getHint(); hint != null; hint = hints.getHint()) {
+            petesPike.makeMove(hint);
+            hints.update();
+            moves++;
+        }
+        return moves;
+    }
+}
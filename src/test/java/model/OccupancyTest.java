@@ -0,0 +1,77 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import petespike.model.Direction;
+import petespike.model.Move;
+import petespike.model.Occupancy;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeException;
+import petespike.model.Position;
+
+public class OccupancyTest {
+    @Test
+    public void slideStopsNextToTheFirstPiece() {
+        Occupancy occupancy = new Occupancy(6, 6);
+        occupancy.set(3, 2);
+        occupancy.set(0, 2);
+        occupancy.set(5, 2);
+        occupancy.set(3, 0);
+
+        assertEquals(1 * 6 + 2, occupancy.slide(3, 2, Direction.UP));
+        assertEquals(4 * 6 + 2, occupancy.slide(3, 2, Direction.DOWN));
+        assertEquals(3 * 6 + 1, occupancy.slide(3, 2, Direction.LEFT));
+        assertEquals(-1, occupancy.slide(3, 2, Direction.RIGHT));
+
+        occupancy.set(3, 3);
+        assertEquals(-1, occupancy.slide(3, 2, Direction.RIGHT));
+        assertEquals(-1, occupancy.slide(3, 3, Direction.LEFT));
+        occupancy.clear(3, 3);
+        assertEquals(-1, occupancy.slide(3, 2, Direction.RIGHT));
+
+        occupancy.set(4, 2);
+        assertEquals(-1, occupancy.slide(3, 2, Direction.DOWN));
+        assertEquals(-1, occupancy.slide(4, 2, Direction.UP));
+    }
+
+    @Test
+    public void slideAcrossAWideBoard() {
+        Occupancy occupancy = new Occupancy(1, 64);
+        occupancy.set(0, 0);
+        occupancy.set(0, 63);
+
+        assertEquals(62, occupancy.slide(0, 0, Direction.RIGHT));
+        assertEquals(1, occupancy.slide(0, 63, Direction.LEFT));
+        assertEquals(-1, occupancy.slide(0, 0, Direction.LEFT));
+        assertEquals(-1, occupancy.slide(0, 63, Direction.RIGHT));
+    }
+
+    @Test
+    public void generateMovesSlidesOverTheMountainTop() throws IOException, PetesPikeException {
+        PetesPike petesPike = new PetesPike(new StringReader("3 5\n-----\nP-T-0\n-----\n"));
+        int[] buffer = new int[petesPike.getMaxMoves()];
+        int count = petesPike.generateMoves(buffer);
+        List<Move> moves = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            moves.add(petesPike.toMove(buffer[i]));
+            targets.add(buffer[i] >>> 8);
+        }
+
+        assertEquals(2, count);
+        assertEquals(true, moves.contains(new Move(new Position(1, 0), Direction.RIGHT)));
+        assertEquals(true, moves.contains(new Move(new Position(1, 4), Direction.LEFT)));
+        assertEquals(true, targets.contains(1 * 5 + 3));
+        assertEquals(true, targets.contains(1 * 5 + 1));
+
+        petesPike.makeMove(new Move(new Position(1, 0), Direction.RIGHT));
+        assertEquals(new Position(1, 3), petesPike.getElement().get('P'));
+    }
+}
@@ -0,0 +1,56 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import petespike.model.Direction;
+import petespike.model.Move;
+import petespike.model.PackedBoard;
+import petespike.model.PackedState;
+import petespike.model.PetesPike;
+import petespike.model.Position;
+
+public class PackedBoardTest {
+    @Test
+    public void packAndMove() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        PackedBoard board = new PackedBoard(petesPike);
+        PackedState state = board.pack(petesPike);
+
+        assertEquals(new Position(3, 2), board.toPosition(board.getCell(state, 0)));
+        assertEquals(state, board.pack(board.unpack(state, new int[board.getPieceCount()])));
+
+        int[] moves = new int[board.getMaxMoves()];
+        int count = board.generateMoves(state, moves);
+        assertEquals(2, count);
+        assertEquals(new Move(new Position(3, 2), Direction.UP), board.toMove(state, moves[0]));
+
+        PackedState next = board.apply(state, moves[0]);
+        assertEquals(new Position(1, 2), board.toPosition(board.getCell(next, 0)));
+    }
+
+    @Test
+    public void largeBoardSpillsIntoSecondWord() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_9_9_9_0.txt");
+        PackedBoard board = new PackedBoard(petesPike);
+        PackedState state = board.pack(petesPike);
+
+        assertEquals(10, board.getPieceCount());
+        assertEquals(new Position(8, 3), board.toPosition(board.getCell(state, 2)));
+        assertEquals(state, board.withCell(board.withCell(state, 9, 0), 9, board.getCell(state, 9)));
+    }
+
+    @Test
+    public void canonicalIgnoresGoatLabels() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        PackedBoard board = new PackedBoard(petesPike);
+        PackedState state = board.pack(petesPike);
+        PackedState swapped = board.withCell(board.withCell(state, 1, board.getCell(state, 2)), 2, board.getCell(state, 1));
+
+        assertEquals(false, state.equals(swapped));
+        assertEquals(board.canonical(state), board.canonical(swapped));
+    }
+}
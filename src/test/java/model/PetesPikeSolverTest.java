@@ -0,0 +1,180 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import backtracker.Backtracker;
+import backtracker.CancellationToken;
+import backtracker.InPlaceBacktracker;
+import backtracker.IterativeBacktracker;
+import backtracker.SearchStatistics;
+import backtracker.SolveOptions;
+import backtracker.SolveResult;
+import backtracker.SolveStatus;
+import backtracker.TranspositionTable;
+
+import petespike.model.DeadStatePredicate;
+import petespike.model.MoveOrdering;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeSolver;
+
+public class PetesPikeSolverTest {
+    @Test
+    public void solveShortest() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveShortest(petesPike, false);
+
+        assertEquals(5, solution.getMoves().size());
+        assertEquals(true, solution.getPetesPike().isGoal());
+    }
+
+    @Test
+    public void solveShortestNoSolution() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_4_8_5_no_solution.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveShortest(petesPike, false);
+
+        assertNull(solution);
+    }
+
+    @Test
+    public void provablyUnsolvable() throws IOException {
+        assertEquals(true, new PetesPike("data/petes_pike_4_8_5_no_solution.txt").isProvablyUnsolvable());
+        assertEquals(false, new PetesPike("data/petes_pike_5_5_4_1.txt").isProvablyUnsolvable());
+        assertEquals(false, new PetesPike("data/petes_pike_9_9_9_0.txt").isProvablyUnsolvable());
+    }
+
+    @Test
+    public void deadStatesArePruned() throws IOException {
+        PetesPikeSolver large = new PetesPikeSolver(new PetesPike("data/petes_pike_9_9_9_0.txt"));
+        SolveResult<PetesPikeSolver> result = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                .solve(large, SolveOptions.UNLIMITED.withMaxNodes(10_000));
+
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertEquals(true, result.getSolution().isGoal());
+        assertEquals(true, result.getStatistics().getInvalidSuccessors() > 0);
+
+        PetesPikeSolver unpruned = new PetesPikeSolver(new PetesPike("data/petes_pike_5_5_5_0.txt"));
+        unpruned.setDeadStatePredicate(DeadStatePredicate.NONE);
+        SolveResult<PetesPikeSolver> all = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                .solve(unpruned, SolveOptions.UNLIMITED);
+        assertEquals(0, all.getStatistics().getInvalidSuccessors());
+    }
+
+    @Test
+    public void orderedSearchVisitsFewerNodes() throws IOException {
+        PetesPikeSolver ordered = new PetesPikeSolver(new PetesPike("data/petes_pike_5_5_5_0.txt"));
+        ordered.setDeadStatePredicate(DeadStatePredicate.NONE);
+        SolveResult<PetesPikeSolver> first = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                .solve(ordered, SolveOptions.UNLIMITED);
+
+        PetesPikeSolver unordered = new PetesPikeSolver(new PetesPike("data/petes_pike_5_5_5_0.txt"));
+        unordered.setDeadStatePredicate(DeadStatePredicate.NONE);
+        unordered.setMoveOrdering(null);
+        SolveResult<PetesPikeSolver> second = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                .solve(unordered, SolveOptions.UNLIMITED);
+
+        assertEquals(true, first.getSolution().isGoal());
+        assertEquals(true, second.getSolution().isGoal());
+        assertEquals(true, first.getStatistics().getNodes() <= second.getStatistics().getNodes());
+    }
+
+    @Test
+    public void solveOptimal() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_5_0.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveOptimal(petesPike, 20);
+
+        assertEquals(8, solution.getMoves().size());
+        assertEquals(true, solution.getPetesPike().isGoal());
+    }
+
+    @Test
+    public void solveBidirectional() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveBidirectional(petesPike);
+
+        assertEquals(7, solution.getMoves().size());
+        assertEquals(true, solution.getPetesPike().isGoal());
+    }
+
+    @Test
+    public void solveParallel() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_5_0.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveParallel(petesPike);
+
+        assertEquals(true, solution.getPetesPike().isGoal());
+        assertNull(new PetesPikeSolver(petesPike).solveParallel(new PetesPike("data/petes_pike_4_8_5_no_solution.txt")));
+    }
+
+    @Test
+    public void solveShortestParallel() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_5_0.txt");
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveShortestParallel(petesPike);
+
+        assertEquals(8, solution.getMoves().size());
+        assertEquals(true, solution.getPetesPike().isGoal());
+        assertNull(new PetesPikeSolver(petesPike).solveShortestParallel(new PetesPike("data/petes_pike_4_8_5_no_solution.txt")));
+    }
+
+    @Test
+    public void solveIterative() throws IOException {
+        String[] puzzles = {"4_8_5_no_solution", "5_5_2_0", "5_5_4_0", "5_5_4_1", "5_5_5_0", "5_7_4_0"};
+        for (String puzzle : puzzles) {
+            PetesPike petesPike = new PetesPike("data/petes_pike_" + puzzle + ".txt");
+            PetesPikeSolver recursive = new Backtracker<PetesPikeSolver>(false, new TranspositionTable())
+                    .solve(new PetesPikeSolver(petesPike));
+            IterativeBacktracker<PetesPikeSolver> backtracker = new IterativeBacktracker<>(false, new TranspositionTable());
+            PetesPikeSolver iterative = backtracker.solve(new PetesPikeSolver(petesPike));
+
+            assertEquals(recursive == null ? null : recursive.getMoves(), iterative == null ? null : iterative.getMoves());
+            assertEquals(iterative == null ? 0 : iterative.getMoves().size(), backtracker.getDepth());
+        }
+    }
+
+    @Test
+    public void solveWithOptions() throws IOException {
+        Backtracker<PetesPikeSolver> backtracker = new Backtracker<>(false, new TranspositionTable());
+        PetesPike large = new PetesPike("data/petes_pike_9_9_9_0.txt");
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        SolveResult<PetesPikeSolver> solved = backtracker.solve(new PetesPikeSolver(new PetesPike("data/petes_pike_5_5_4_0.txt")), SolveOptions.UNLIMITED);
+        SolveResult<int[]> unsolvable = new InPlaceBacktracker(false, new TranspositionTable()).solve(new PetesPike("data/petes_pike_4_8_5_no_solution.txt"), SolveOptions.UNLIMITED);
+        SolveResult<int[]> tooShallow = new InPlaceBacktracker(false).solve(new PetesPike("data/petes_pike_5_5_5_0.txt"), SolveOptions.UNLIMITED.withMaxDepth(3));
+        SolveResult<int[]> outOfNodes = new InPlaceBacktracker(false, new TranspositionTable()).solve(large, SolveOptions.UNLIMITED.withMaxNodes(500));
+        SolveResult<int[]> cancelled = new InPlaceBacktracker(false, new TranspositionTable()).solve(large, SolveOptions.UNLIMITED.withCancellationToken(token));
+        SolveResult<int[]> outOfTime = new InPlaceBacktracker(false, new TranspositionTable()).solve(large, SolveOptions.UNLIMITED.withTimeLimit(Duration.ofMillis(50)));
+
+        assertEquals(SolveStatus.SOLVED, solved.getStatus());
+        assertEquals(true, solved.getSolution().isGoal());
+        assertEquals(SolveStatus.UNSOLVABLE, unsolvable.getStatus());
+        assertEquals(SolveStatus.BUDGET_EXHAUSTED, tooShallow.getStatus());
+        assertEquals(SolveStatus.BUDGET_EXHAUSTED, outOfNodes.getStatus());
+        assertEquals(500, outOfNodes.getNodes());
+        assertEquals(SolveStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(SolveStatus.BUDGET_EXHAUSTED, outOfTime.getStatus());
+    }
+
+    @Test
+    public void searchStatistics() throws IOException {
+        List<SearchStatistics> reports = new ArrayList<>();
+        SolveOptions options = SolveOptions.UNLIMITED.withListener(reports::add, Duration.ofSeconds(1));
+        SolveResult<int[]> result = new InPlaceBacktracker(false, new TranspositionTable())
+                .solve(new PetesPike("data/petes_pike_5_5_5_0.txt"), options);
+        SearchStatistics statistics = result.getStatistics();
+
+        assertEquals(SolveStatus.SOLVED, result.getStatus());
+        assertEquals(statistics.getNodes(), statistics.getExpanded() + statistics.getTableHits() + 1);
+        assertEquals(statistics.getNodes(), statistics.getValidSuccessors() + 1);
+        assertEquals(0, statistics.getInvalidSuccessors());
+        assertEquals(true, statistics.getMaxDepth() >= result.getSolution().length);
+        assertEquals(true, statistics.getBranchingFactor() > 1);
+        assertEquals(List.of(statistics), reports);
+    }
+}
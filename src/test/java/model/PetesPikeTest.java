@@ -8,6 +8,8 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import backtracker.InPlaceBacktracker;
+import backtracker.TranspositionTable;
 import petespike.model.Direction;
 import petespike.model.Move;
 import petespike.model.PetesPike;
@@ -89,5 +91,66 @@ public class PetesPikeTest {
         
 
         
-    }   
+    }
+
+    @Test
+    public void zobristHash() throws PetesPikeException, IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        PetesPike other = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        long start = petesPike.getZobristHash();
+
+        petesPike.makeMove(new Move(new Position(0, 2), Direction.DOWN));
+        long moved = petesPike.getZobristHash();
+        petesPike.reset(petesPike);
+
+        assertEquals(start, other.getZobristHash());
+        assertEquals(false, start == moved);
+        assertEquals(start, petesPike.getZobristHash());
+    }
+
+    @Test
+    public void applyAndUndoMove() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_0.txt");
+        long start = petesPike.getZobristHash();
+        int[] moves = new int[petesPike.getMaxMoves()];
+        int count = petesPike.generateMoves(moves);
+
+        long token = petesPike.applyMove(moves[1]);
+        char moved = petesPike.getSymbolAt(new Position(2, 2));
+        petesPike.undoMove(token);
+
+        assertEquals(2, count);
+        assertEquals('1', moved);
+        assertEquals('T', petesPike.getSymbolAt(new Position(2, 2)));
+        assertEquals('1', petesPike.getSymbolAt(new Position(0, 2)));
+        assertEquals(start, petesPike.getZobristHash());
+        assertEquals(0, petesPike.getMoveCount());
+    }
+
+    @Test
+    public void solveInPlace() throws IOException {
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_5_0.txt");
+        long start = petesPike.getZobristHash();
+
+        int[] solution = new InPlaceBacktracker(false, new TranspositionTable()).solve(petesPike);
+
+        assertEquals(start, petesPike.getZobristHash());
+        assertEquals(8, petesPike.toMoves(solution).size());
+    }
+
+    @Test
+    public void relevancePruning() throws IOException {
+        PetesPike unsolvable = new PetesPike("data/petes_pike_4_8_5_no_solution.txt");
+        unsolvable.setRelevancePruning(true);
+        assertEquals(0, unsolvable.generateMoves(new int[unsolvable.getMaxMoves()]));
+
+        PetesPike petesPike = new PetesPike("data/petes_pike_9_9_9_0.txt");
+        petesPike.setRelevancePruning(true);
+        int[] solution = new InPlaceBacktracker(false, new TranspositionTable()).solve(petesPike);
+        assertEquals(true, petesPike.isRelevant('P'));
+        for (int move : solution) {
+            petesPike.applyMove(move);
+        }
+        assertEquals(true, petesPike.isGoal());
+    }
 }
@@ -0,0 +1,36 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import backtracker.SolveOptions;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeSolver;
+import petespike.model.PuzzleGenerator;
+
+public class PuzzleGeneratorTest {
+    @Test
+    public void generate() throws IOException {
+        String puzzle = new PuzzleGenerator(16, 20, 9, 42).generate();
+        PetesPike petesPike = new PetesPike(new StringReader(puzzle));
+
+        assertEquals(puzzle, new PuzzleGenerator(16, 20, 9, 42).generate());
+        assertEquals(16, petesPike.getRows());
+        assertEquals(20, petesPike.getCol());
+        assertEquals(10, petesPike.getElement().size());
+        assertEquals('T', petesPike.getSymbolAt(petesPike.getMountainTop()));
+    }
+
+    @Test
+    public void generateSolvable() throws IOException {
+        String puzzle = new PuzzleGenerator(6, 6, 4, 7).generateSolvable(SolveOptions.UNLIMITED.withMaxNodes(100_000), 200);
+        PetesPike petesPike = new PetesPike(new StringReader(puzzle));
+        PetesPikeSolver solution = new PetesPikeSolver(petesPike).solveShortest(petesPike, false);
+
+        assertEquals(true, solution.getPetesPike().isGoal());
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import backtracker.SolveOptions;
+import petespike.model.Move;
+import petespike.model.PetesPike;
+import petespike.model.PetesPikeException;
+import petespike.model.PetesPikeSolver;
+import petespike.model.PuzzleGenerator;
+import petespike.model.SolutionCache;
+
+public class SolutionCacheTest {
+    @Test
+    public void putAndGet() throws IOException {
+        Path file = Files.createTempFile("solutions", ".cache");
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        List<Move> moves = new PetesPikeSolver(petesPike).solveShortest(petesPike, false).getMoves();
+
+        try (SolutionCache cache = new SolutionCache(file, 64)) {
+            assertNull(cache.get(petesPike, false));
+            assertEquals(true, cache.put(petesPike, moves, false));
+            assertNull(cache.get(petesPike, true));
+        }
+        try (SolutionCache cache = new SolutionCache(file, 64)) {
+            assertEquals(moves, cache.get(petesPike, false));
+            cache.put(petesPike, moves, true);
+            assertEquals(moves, cache.get(petesPike, true));
+            assertNull(cache.get(new PetesPike("data/petes_pike_5_5_4_0.txt"), false));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void openCachesShareAFile() throws IOException {
+        Path file = Files.createTempFile("solutions", ".cache");
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        List<Move> moves = new PetesPikeSolver(petesPike).solveShortest(petesPike, false).getMoves();
+
+        try (SolutionCache first = new SolutionCache(file, 64); SolutionCache second = new SolutionCache(file, 64)) {
+            assertEquals(true, first.put(petesPike, moves, true));
+            assertEquals(moves, second.get(petesPike, true));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void symmetricBoardsShareEntries() throws IOException, PetesPikeException {
+        Path file = Files.createTempFile("solutions", ".cache");
+        PetesPike petesPike = new PetesPike("data/petes_pike_5_5_4_1.txt");
+        // the same board transposed, with goats 0 and 3 swapped
+        PetesPike transposed = new PetesPike(new StringReader("5 5\n---1-\nP--2-\n--T0-\n-----\n-3---"));
+
+        try (SolutionCache cache = new SolutionCache(file, 64)) {
+            cache.put(petesPike, new PetesPikeSolver(petesPike).solveShortest(petesPike, false).getMoves(), true);
+            List<Move> moves = cache.get(transposed, true);
+            assertEquals(7, moves.size());
+            for (Move move : moves) {
+                transposed.makeMove(move);
+            }
+            assertEquals(true, transposed.isGoal());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() throws IOException {
+        Path file = Files.createTempFile("solutions", ".cache");
+        PuzzleGenerator generator = new PuzzleGenerator(6, 6, 4, 7);
+        SolveOptions options = SolveOptions.UNLIMITED.withMaxNodes(10_000);
+
+        try (SolutionCache cache = new SolutionCache(file, 8)) {
+            PetesPike first = null;
+            PetesPike second = null;
+            for (int i = 0; i < 9; i++) {
+                PetesPike petesPike = new PetesPike(new StringReader(generator.generateSolvable(options, 1000)));
+                cache.put(petesPike, new PetesPikeSolver(petesPike).solveShortest(petesPike, false).getMoves(), true);
+                if (i == 0) {
+                    first = petesPike;
+                } else if (i == 1) {
+                    second = petesPike;
+                    cache.get(first, false);
+                }
+            }
+            assertEquals(true, cache.get(first, false) != null);
+            assertNull(cache.get(second, false));
+        }
+        Files.delete(file);
+    }
+}
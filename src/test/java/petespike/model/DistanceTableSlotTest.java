@@ -0,0 +1,18 @@
+package petespike.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class DistanceTableSlotTest {
+    @Test
+    public void slotsHoldEveryDistance() {
+        for (int distance = 0; distance <= DistanceTable.MAX_DISTANCE; distance++) {
+            assertEquals(distance, DistanceTable.fromSlot(DistanceTable.toSlot(distance)));
+        }
+        assertEquals(true, DistanceTable.toSlot(200) < 0);
+        assertEquals(200, DistanceTable.fromSlot(DistanceTable.toSlot(200)));
+        assertEquals(DistanceTable.UNREACHABLE, DistanceTable.fromSlot((byte)0));
+        assertEquals(DistanceTable.UNSOLVABLE, DistanceTable.fromSlot((byte)1));
+    }
+}